@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gadgetmart.notification.event.OrderPlacedEvent;
 import com.gadgetmart.notification.event.OrderStatusUpdatedEvent;
 import com.gadgetmart.notification.event.OtpRequestedEvent;
+import com.gadgetmart.notification.event.PriceDropEvent;
 import com.gadgetmart.notification.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -67,4 +68,18 @@ public class NotificationConsumer {
             log.error("Error processing order.status.update event: {}", e.getMessage());
         }
     }
+
+    // ─────────────────────────────────────────────────────────────────
+    // 4. LISTEN: price.drop → Send Price Drop Alert Email
+    // ─────────────────────────────────────────────────────────────────
+    @KafkaListener(topics = "price.drop", groupId = "notification-service-group")
+    public void handlePriceDrop(String message) {
+        try {
+            log.info("📨 Received [price.drop] event");
+            PriceDropEvent event = objectMapper.readValue(message, PriceDropEvent.class);
+            emailService.sendPriceDropEmail(event);
+        } catch (Exception e) {
+            log.error("Error processing price.drop event: {}", e.getMessage());
+        }
+    }
 }
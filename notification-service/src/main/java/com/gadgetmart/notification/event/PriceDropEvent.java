@@ -0,0 +1,17 @@
+package com.gadgetmart.notification.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceDropEvent {
+    private String userEmail;
+    private String productName;
+    private Double previousPrice;
+    private Double newPrice;
+    private String platformName;
+    private String productUrl;
+}
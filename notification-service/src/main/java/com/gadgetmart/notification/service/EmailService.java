@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import com.gadgetmart.notification.event.OrderPlacedEvent;
 import com.gadgetmart.notification.event.OtpRequestedEvent;
 import com.gadgetmart.notification.event.OrderStatusUpdatedEvent;
+import com.gadgetmart.notification.event.PriceDropEvent;
 
 import java.math.BigDecimal;
 
@@ -66,6 +67,19 @@ public class EmailService {
         }
     }
 
+    // ─────────────────────────────────────────────
+    // 4. PRICE DROP ALERT EMAIL
+    // ─────────────────────────────────────────────
+    public void sendPriceDropEmail(PriceDropEvent event) {
+        try {
+            String html = buildPriceDropHtml(event);
+            sendEmail(event.getUserEmail(), "📉 Price drop: " + event.getProductName(), html);
+            log.info("✅ Price drop email sent to {} for {}", event.getUserEmail(), event.getProductName());
+        } catch (Exception e) {
+            log.error("❌ Failed to send price drop email: {}", e.getMessage());
+        }
+    }
+
     // ─────────────────────────────────────────────
     // CORE SEND METHOD
     // ─────────────────────────────────────────────
@@ -215,6 +229,40 @@ public class EmailService {
             """, emoji, event.getStatus(), event.getOrderNumber().substring(0, 8).toUpperCase());
     }
 
+    private String buildPriceDropHtml(PriceDropEvent event) {
+        String platform = event.getPlatformName() != null ? event.getPlatformName() : "GadgetMart";
+        String link = event.getProductUrl() != null
+                ? String.format("<a href=\"%s\" style=\"display:inline-block;margin-top:16px;background:#38a169;color:#fff;text-decoration:none;padding:12px 28px;border-radius:8px;font-weight:600;\">Buy on %s</a>", event.getProductUrl(), platform)
+                : "";
+
+        return String.format("""
+            <!DOCTYPE html>
+            <html>
+            <body style="margin:0;font-family:'Segoe UI',sans-serif;background:#f8fafc;">
+              <div style="max-width:500px;margin:40px auto;background:#fff;border-radius:16px;overflow:hidden;box-shadow:0 4px 24px rgba(0,0,0,0.08);">
+                <div style="background:linear-gradient(135deg,#43e97b,#38a169);padding:40px;text-align:center;">
+                  <div style="font-size:48px;">📉</div>
+                  <h1 style="color:#fff;margin:8px 0 0;font-size:22px;">Price Drop Alert</h1>
+                </div>
+                <div style="padding:32px;text-align:center;">
+                  <p style="color:#4a5568;font-size:16px;">A product you saved just got cheaper:</p>
+                  <h2 style="color:#1a202c;margin:8px 0;">%s</h2>
+                  <div style="background:#f7fafc;border-radius:12px;padding:20px;margin:16px 0;">
+                    <span style="color:#a0aec0;font-size:18px;text-decoration:line-through;">₹%.2f</span>
+                    <div style="color:#38a169;font-size:28px;font-weight:700;">₹%.2f</div>
+                    <p style="margin:4px 0 0;color:#718096;font-size:13px;">on %s</p>
+                  </div>
+                  %s
+                </div>
+                <div style="background:#f7fafc;padding:20px;text-align:center;">
+                  <p style="margin:0;color:#a0aec0;font-size:12px;">© 2026 GadgetMart — India's Smartest Price Comparator</p>
+                </div>
+              </div>
+            </body>
+            </html>
+            """, event.getProductName(), event.getPreviousPrice(), event.getNewPrice(), platform, link);
+    }
+
     private String getStatusSubject(String status) {
         return switch (status) {
             case "SHIPPED" -> "🚚 Your Order is Shipped!";
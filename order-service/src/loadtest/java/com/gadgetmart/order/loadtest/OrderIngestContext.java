@@ -0,0 +1,36 @@
+package com.gadgetmart.order.loadtest;
+
+import com.gadgetmart.order.model.Order;
+import com.gadgetmart.order.repository.OrderRepository;
+import com.gadgetmart.order.service.IdempotencyStore;
+import com.gadgetmart.order.service.InventoryService;
+import com.gadgetmart.order.service.OrderGroupCommitter;
+import com.gadgetmart.order.service.OrderService;
+import com.gadgetmart.order.service.OutboxService;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * The order write path of order-service and nothing else: the real entities, repositories,
+ * OrderService, OutboxService, InventoryService and (with order.group-commit.enabled)
+ * OrderGroupCommitter, on Postgres and Redis. Eureka, Feign, Kafka, the web layer and the
+ * scheduled jobs are left out; application.yml is still read, so JPA and batching settings
+ * are the shipped ones.
+ */
+@SpringBootConfiguration
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+        TransactionAutoConfiguration.class, JacksonAutoConfiguration.class, RedisAutoConfiguration.class})
+@EntityScan(basePackageClasses = Order.class)
+@EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+@Import({OrderService.class, OutboxService.class, InventoryService.class, IdempotencyStore.class,
+        OrderGroupCommitter.class})
+class OrderIngestContext {
+}
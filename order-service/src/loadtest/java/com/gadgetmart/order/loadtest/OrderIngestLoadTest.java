@@ -0,0 +1,254 @@
+package com.gadgetmart.order.loadtest;
+
+import com.gadgetmart.order.dto.OrderRequest;
+import com.gadgetmart.order.service.OrderGroupCommitter;
+import com.gadgetmart.order.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Order ingestion load test: orders per second and placement latency of
+ * {@link OrderService#placeOrder(OrderRequest)} with the IDENTITY mapping from before pooled
+ * sequences, with the shipped pooled-sequence mapping and JDBC batching, and with group commit
+ * on top, against a real Postgres and Redis.
+ * <p>
+ * Each mode boots {@link OrderIngestContext} on an emptied database; IDENTITY lays
+ * loadtest/orm-identity.xml over the entity annotations and turns batching off. Client threads
+ * place orders back to back for a fixed time after a warm-up, through a Hikari pool sized like
+ * the service's. Orders are for untracked products, so stock reservation costs one Redis
+ * script call per order, as it does for most of the catalog.
+ * <p>
+ * Run with {@code mvn -pl order-service -Ploadtest test-compile exec:exec}. Settings (system
+ * properties, also accepted as -D on the Maven command line):
+ * <ul>
+ *   <li>loadtest.jdbc-url - Postgres to use; blank starts postgres:16-alpine with Testcontainers</li>
+ *   <li>loadtest.username / loadtest.password - credentials for jdbc-url</li>
+ *   <li>loadtest.redis-host / loadtest.redis-port - Redis to use; blank starts redis:7-alpine</li>
+ *   <li>loadtest.threads - concurrent clients (64)</li>
+ *   <li>loadtest.seconds - measured time per mode (30)</li>
+ *   <li>loadtest.items - items per order (3)</li>
+ *   <li>loadtest.pool-size - connection pool size (10, Hikari's default as in the service)</li>
+ * </ul>
+ */
+@Slf4j
+public class OrderIngestLoadTest {
+
+    private static final int WARMUP_SECONDS = 5;
+
+    private enum Mode {
+        IDENTITY("--spring.jpa.mapping-resources=loadtest/orm-identity.xml",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=0",
+                "--spring.jpa.properties.hibernate.order_inserts=false",
+                "--spring.jpa.properties.hibernate.order_updates=false"),
+        POOLED_BATCH(),
+        GROUP_COMMIT("--order.group-commit.enabled=true");
+
+        private final String[] properties;
+
+        Mode(String... properties) {
+            this.properties = properties;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        String jdbcUrl = System.getProperty("loadtest.jdbc-url", "");
+        String username = System.getProperty("loadtest.username", "postgres");
+        String password = System.getProperty("loadtest.password", "postgres");
+        String redisHost = System.getProperty("loadtest.redis-host", "");
+        int redisPort = Integer.getInteger("loadtest.redis-port", 6379);
+        int threads = Integer.getInteger("loadtest.threads", 64);
+        int seconds = Integer.getInteger("loadtest.seconds", 30);
+        int items = Integer.getInteger("loadtest.items", 3);
+        int poolSize = Integer.getInteger("loadtest.pool-size", 10);
+
+        PostgreSQLContainer<?> postgres = null;
+        GenericContainer<?> redis = null;
+        List<Result> results = new ArrayList<>();
+        try {
+            if (jdbcUrl.isBlank()) {
+                postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+                postgres.start();
+                jdbcUrl = postgres.getJdbcUrl();
+                username = postgres.getUsername();
+                password = postgres.getPassword();
+            }
+            if (redisHost.isBlank()) {
+                redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+                redis.start();
+                redisHost = redis.getHost();
+                redisPort = redis.getMappedPort(6379);
+            }
+
+            for (Mode mode : Mode.values()) {
+                resetDatabase(jdbcUrl, username, password);
+                List<String> properties = new ArrayList<>(List.of(
+                        "--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.data.redis.host=" + redisHost,
+                        "--spring.data.redis.port=" + redisPort,
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.main.web-application-type=none"));
+                properties.addAll(Arrays.asList(mode.properties));
+
+                try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderIngestContext.class)
+                        .bannerMode(Banner.Mode.OFF)
+                        .logStartupInfo(false)
+                        .run(properties.toArray(String[]::new))) {
+                    try (RedisConnection connection = context.getBean(StringRedisTemplate.class)
+                            .getRequiredConnectionFactory().getConnection()) {
+                        connection.serverCommands().flushDb();
+                    }
+                    boolean grouped = context.getBeanProvider(OrderGroupCommitter.class).getIfAvailable() != null;
+                    if (grouped != (mode == Mode.GROUP_COMMIT)) {
+                        throw new IllegalStateException(mode + " started with group commit " + (grouped ? "on" : "off"));
+                    }
+                    OrderService orderService = context.getBean(OrderService.class);
+
+                    log.info("{}: warming up for {} s", mode, WARMUP_SECONDS);
+                    run(mode, orderService, threads, WARMUP_SECONDS, items);
+                    log.info("{}: measuring for {} s with {} clients", mode, seconds, threads);
+                    results.add(run(mode, orderService, threads, seconds, items));
+                    logRows(mode, new JdbcTemplate(context.getBean(DataSource.class)));
+                }
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+            if (redis != null) {
+                redis.stop();
+            }
+        }
+
+        double baseline = results.get(0).ordersPerSecond();
+        StringBuilder report = new StringBuilder(String.format("%n%-14s %10s %12s %9s %9s %8s %9s%n",
+                "mode", "orders", "orders/s", "p50 ms", "p99 ms", "errors", "vs IDENT"));
+        for (Result result : results) {
+            report.append(String.format("%-14s %10d %12.1f %9.2f %9.2f %8d %8.2fx%n",
+                    result.mode(), result.orders(), result.ordersPerSecond(), result.p50Ms(), result.p99Ms(),
+                    result.errors(), result.ordersPerSecond() / baseline));
+        }
+        log.info("{} clients, {} items per order, pool of {}:{}", threads, items, poolSize, report);
+    }
+
+    private static void resetDatabase(String jdbcUrl, String username, String password) throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop schema public cascade; create schema public");
+        }
+    }
+
+    // Shows which mapping actually ran: the join table only exists for IDENTITY
+    private static void logRows(Mode mode, JdbcTemplate jdbcTemplate) {
+        Long orders = jdbcTemplate.queryForObject("select count(*) from orders", Long.class);
+        Long items = jdbcTemplate.queryForObject("select count(*) from order_item", Long.class);
+        Long events = jdbcTemplate.queryForObject("select count(*) from order_outbox", Long.class);
+        Boolean joinTable = jdbcTemplate.queryForObject(
+                "select to_regclass('orders_order_items') is not null", Boolean.class);
+        log.info("{}: {} orders, {} items, {} outbox events written; join table {}", mode, orders, items, events,
+                Boolean.TRUE.equals(joinTable) ? "present" : "absent");
+    }
+
+    private static Result run(Mode mode, OrderService orderService, int threads, int seconds, int items)
+            throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        CountDownLatch finished = new CountDownLatch(threads);
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[threads][];
+        int[] counts = new int[threads];
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.SECONDS.toNanos(seconds);
+
+        for (int t = 0; t < threads; t++) {
+            int client = t;
+            clients.execute(() -> {
+                long[] own = new long[1024];
+                int count = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        OrderRequest request = randomRequest(items);
+                        long start = System.nanoTime();
+                        try {
+                            orderService.placeOrder(request);
+                        } catch (Exception e) {
+                            if (errors.getAndIncrement() == 0) {
+                                log.warn("{}: order failed: {}", mode, e.getMessage());
+                            }
+                            continue;
+                        }
+                        if (count == own.length) {
+                            own = Arrays.copyOf(own, count * 2);
+                        }
+                        own[count++] = System.nanoTime() - start;
+                    }
+                } finally {
+                    latencies[client] = own;
+                    counts[client] = count;
+                    finished.countDown();
+                }
+            });
+        }
+        finished.await();
+        long elapsed = System.nanoTime() - startedAt;
+        clients.shutdown();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(latencies[t], 0, all, offset, counts[t]);
+            offset += counts[t];
+        }
+        Arrays.sort(all);
+        return new Result(mode.name(), total, total / (elapsed / 1e9),
+                percentileMs(all, 0.50), percentileMs(all, 0.99), errors.get());
+    }
+
+    private static OrderRequest randomRequest(int itemCount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<OrderRequest.OrderItemDto> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            int product = random.nextInt(5_000);
+            items.add(new OrderRequest.OrderItemDto(Integer.toHexString(product), "Product " + product,
+                    BigDecimal.valueOf(random.nextInt(1_000, 200_000), 2), random.nextInt(1, 4)));
+        }
+        return new OrderRequest("user" + random.nextInt(100_000) + "@gadgetmart.test", items);
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    private record Result(String mode, int orders, double ordersPerSecond, double p50Ms, double p99Ms, long errors) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.gadgetmart.order.api;
+
+import com.gadgetmart.order.model.InventoryStock;
+import com.gadgetmart.order.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Stock of GadgetMart-owned SKUs, managed from inside the network: the api-gateway's
+ * deny-internal route answers 403 for /api/inventory/** and /order-service/api/inventory/**.
+ */
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<InventoryStock> getStock(@PathVariable String productId) {
+        try {
+            return ResponseEntity.ok(inventoryService.getStock(productId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/{productId}")
+    public ResponseEntity<InventoryStock> setAvailable(@PathVariable String productId,
+            @RequestParam int available,
+            @RequestParam(required = false) String productName) {
+        if (available < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(inventoryService.setAvailable(productId, productName, available));
+    }
+}
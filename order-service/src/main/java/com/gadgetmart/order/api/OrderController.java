@@ -1,10 +1,15 @@
 package com.gadgetmart.order.api;
 
+import com.gadgetmart.order.dto.OrderPage;
 import com.gadgetmart.order.dto.OrderRequest;
+import com.gadgetmart.order.dto.OrderSummary;
+import com.gadgetmart.order.dto.PlacedOrder;
 import com.gadgetmart.order.model.Order;
 import com.gadgetmart.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -14,20 +19,56 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
     private final OrderService orderService;
 
+    @Value("${order.listing.max-page-size:100}")
+    private int maxPageSize;
+
+    /**
+     * Send an Idempotency-Key header to make retries safe: a repeated key returns the original
+     * order number (200, Idempotent-Replayed: true) instead of placing a second order.
+     */
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public String placeOrder(@RequestBody OrderRequest orderRequest) {
-        return orderService.placeOrder(orderRequest);
+    public ResponseEntity<String> placeOrder(@RequestBody OrderRequest orderRequest,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null && idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            PlacedOrder placed = orderService.placeOrder(orderRequest, idempotencyKey);
+            if (placed.replayed()) {
+                return ResponseEntity.ok().header("Idempotent-Replayed", "true").body(placed.orderNumber());
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(placed.orderNumber());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
     }
 
     @GetMapping
-    public List<Order> getAllOrders(@RequestParam(required = false) String email) {
-        if (email != null) {
-            return orderService.getOrdersByUser(email);
+    public List<OrderSummary> getAllOrders(@RequestParam(required = false) String email) {
+        return orderService.getRecentOrders(email);
+    }
+
+    /**
+     * Cursor-paginated listing for dashboards; pass the previous page's nextCursor to continue.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<OrderPage> listOrders(@RequestParam(required = false) String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeItems) {
+        if (size < 1 || size > maxPageSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(orderService.listOrders(email, cursor, size, includeItems));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        return orderService.getAllOrders();
     }
 
     @GetMapping("/{orderNumber}")
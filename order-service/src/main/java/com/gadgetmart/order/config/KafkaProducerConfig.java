@@ -14,9 +14,14 @@ import java.util.Map;
 @Configuration
 public class KafkaProducerConfig {
 
+    private static final int OUTBOX_LINGER_MS = 10;
+
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${order.outbox.send-timeout-ms:10000}")
+    private long outboxSendTimeoutMs;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> config = new HashMap<>();
@@ -31,4 +36,35 @@ public class KafkaProducerConfig {
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    /**
+     * Producer for the outbox relay. Payloads are already JSON, so values are plain strings.
+     * Idempotence with acks=all means a retried send cannot duplicate or reorder a message,
+     * and linger plus lz4 let one relay pass go out as a few large compressed batches.
+     * The relay sends while holding outbox row locks, so neither a metadata wait (max.block.ms)
+     * nor delivery (delivery.timeout.ms) may outlast order.outbox.send-timeout-ms.
+     */
+    @Bean
+    public ProducerFactory<String, String> outboxProducerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, OUTBOX_LINGER_MS);
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, outboxSendTimeoutMs);
+        config.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) outboxSendTimeoutMs);
+        // Kafka requires delivery.timeout.ms >= linger.ms + request.timeout.ms
+        config.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) Math.max(1, outboxSendTimeoutMs - OUTBOX_LINGER_MS));
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    @Bean
+    public KafkaTemplate<String, String> outboxKafkaTemplate() {
+        return new KafkaTemplate<>(outboxProducerFactory());
+    }
 }
@@ -0,0 +1,61 @@
+package com.gadgetmart.order.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off data fixes for the move from IDENTITY ids and a join table to pooled sequences and
+ * an order_id column on order_item. Runs after Hibernate has updated the schema (it depends on
+ * the EntityManagerFactory) and before the web server starts; every step is idempotent.
+ */
+@Component
+@Slf4j
+public class OrderSchemaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+    private static final String LEGACY_JOIN_TABLE = "orders_order_items";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderSchemaMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void migrate() {
+        try {
+            linkItemsFromJoinTable();
+            alignSequence("orders", "orders_seq");
+            alignSequence("order_item", "order_item_seq");
+            alignSequence("order_outbox", "order_outbox_seq");
+        } catch (Exception e) {
+            log.error("Order schema migration failed: {}", e.getMessage());
+        }
+    }
+
+    private void linkItemsFromJoinTable() {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = ?)", Boolean.class,
+                LEGACY_JOIN_TABLE);
+        if (!Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        int linked = jdbcTemplate.update("UPDATE order_item i SET order_id = j.order_id FROM " + LEGACY_JOIN_TABLE
+                + " j WHERE j.order_items_id = i.id AND i.order_id IS NULL");
+        if (linked > 0) {
+            log.info("Linked {} order items to their orders from {}", linked, LEGACY_JOIN_TABLE);
+        }
+    }
+
+    /**
+     * Rows inserted under IDENTITY may be ahead of a freshly created sequence; move the sequence
+     * past them so pooled blocks never hand out an id that is already taken.
+     */
+    private void alignSequence(String table, String sequence) {
+        jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', GREATEST((SELECT last_value FROM " + sequence
+                + "), (SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + ALLOCATION_SIZE + "))", Long.class);
+    }
+}
@@ -28,5 +28,15 @@ public class PaymentConsumer {
         } catch (Exception e) {
             log.error("❌ Failed to update order status after payment: {}", e.getMessage());
         }
+
+        try {
+            orderService.commitStock(orderNumber);
+        } catch (IllegalStateException e) {
+            log.error("❌ Order {} is paid but its stock could not be committed, needs manual follow-up: {}",
+                    orderNumber, e.getMessage());
+        } catch (Exception e) {
+            // The reservation stays; ReservationSweeper commits it once the order shows as PAID
+            log.warn("⚠️ Stock commit for order {} deferred: {}", orderNumber, e.getMessage());
+        }
     }
 }
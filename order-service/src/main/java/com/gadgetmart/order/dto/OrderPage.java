@@ -0,0 +1,18 @@
+package com.gadgetmart.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of GET /api/orders/page, newest first. nextCursor is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPage {
+    private List<OrderSummary> items;
+    private String nextCursor;
+}
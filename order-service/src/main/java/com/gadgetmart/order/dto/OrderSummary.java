@@ -0,0 +1,35 @@
+package com.gadgetmart.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.gadgetmart.order.model.OrderItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Listing view of an order: the order row only, selected directly by the query. orderItems is
+ * filled by one batched fetch per page when asked for, and omitted otherwise.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderSummary {
+    private Long id;
+    private String orderNumber;
+    private String userEmail;
+    private BigDecimal totalAmount;
+    private String status;
+    private LocalDateTime createdAt;
+    private List<OrderItem> orderItems;
+
+    // Constructor expression target for the listing queries
+    public OrderSummary(Long id, String orderNumber, String userEmail, BigDecimal totalAmount, String status,
+            LocalDateTime createdAt) {
+        this(id, orderNumber, userEmail, totalAmount, status, createdAt, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.gadgetmart.order.dto;
+
+/**
+ * Result of placing an order. replayed is true when an earlier request with the same
+ * Idempotency-Key already placed it and nothing new was written.
+ */
+public record PlacedOrder(String orderNumber, boolean replayed) {
+}
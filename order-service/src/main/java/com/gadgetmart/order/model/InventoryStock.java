@@ -0,0 +1,37 @@
+package com.gadgetmart.order.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock of a GadgetMart-owned SKU; products without a row here are sold by other platforms and
+ * are not tracked. The live counters are in Redis (see InventoryService); this row is their
+ * durable copy, written behind at most inventory.flush-interval-ms later.
+ */
+@Entity
+@Table(name = "inventory_stock")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryStock {
+
+    // Product id in product-service (MongoDB ID), as on OrderItem
+    @Id
+    private String productId;
+
+    private String productName;
+
+    // Units that can still be reserved
+    @Column(nullable = false)
+    private int available;
+
+    // Units held by placed orders awaiting payment
+    @Column(nullable = false)
+    private int reserved;
+
+    private LocalDateTime updatedAt;
+}
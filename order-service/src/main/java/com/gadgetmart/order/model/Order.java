@@ -1,5 +1,6 @@
 package com.gadgetmart.order.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,7 +9,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+// Backs the keyset listings: newest first overall and per user
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_id", columnList = "createdAt DESC, id DESC"),
+        @Index(name = "idx_orders_user_created_id", columnList = "userEmail, createdAt DESC, id DESC")
+}, uniqueConstraints = @UniqueConstraint(name = Order.IDEMPOTENCY_KEY_CONSTRAINT, columnNames = "idempotencyKey"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,15 +21,24 @@ import java.util.List;
 @Builder
 public class Order {
 
+    public static final String IDEMPOTENCY_KEY_CONSTRAINT = "uk_orders_idempotency_key";
+
+    // Pooled sequence: ids come 50 at a time without a round trip, which keeps JDBC batching on
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private String orderNumber;
+
+    // "<userEmail>:<Idempotency-Key header>"; the unique constraint is the last line of dedup
+    @JsonIgnore
+    private String idempotencyKey;
     
     private String userEmail; // Linked to User Service
 
-    @OneToMany(cascade = CascadeType.ALL)
+    // Items carry the order_id foreign key themselves; no join table
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
     private List<OrderItem> orderItems;
 
     private BigDecimal totalAmount;
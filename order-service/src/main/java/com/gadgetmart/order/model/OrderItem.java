@@ -1,11 +1,13 @@
 package com.gadgetmart.order.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.math.BigDecimal;
 
 @Entity
+@Table(indexes = @Index(name = "idx_order_item_order_id", columnList = "order_id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,9 +16,15 @@ import java.math.BigDecimal;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
 
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id")
+    private Order order;
+
     private String productId; // In product-service (MongoDB ID)
     private String productName;
     private BigDecimal price;
@@ -0,0 +1,38 @@
+package com.gadgetmart.order.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Kafka message written in the same transaction as the order change it describes, and
+ * published later by OutboxRelay. sentAt stays null until the broker has acknowledged it.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = @Index(name = "idx_order_outbox_sent_id", columnList = "sentAt, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String messageKey;
+
+    // JSON, sent as-is
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,7 @@
+package com.gadgetmart.order.repository;
+
+import com.gadgetmart.order.model.InventoryStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface InventoryStockRepository extends JpaRepository<InventoryStock, String> {
+}
@@ -1,12 +1,57 @@
 package com.gadgetmart.order.repository;
 
+import com.gadgetmart.order.dto.OrderSummary;
 import com.gadgetmart.order.model.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Optional<Order> findByOrderNumber(String orderNumber);
 
-    List<Order> findByUserEmail(String userEmail);
+    List<Order> findByOrderNumberIn(Collection<String> orderNumbers);
+
+    // Conditional, so a payment that lands concurrently is never overwritten
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status WHERE o.orderNumber = :orderNumber AND o.status = :expected")
+    int updateStatusIf(@Param("orderNumber") String orderNumber, @Param("expected") String expected,
+            @Param("status") String status);
+
+    @Query("SELECT o.orderNumber FROM Order o WHERE o.idempotencyKey = :key")
+    Optional<String> findOrderNumberByIdempotencyKey(@Param("key") String key);
+
+    // Keyset listing, newest first: (createdAt, id) of the last row seen is the cursor, so every
+    // page is an index range scan however deep it is. Pageable only carries the page size.
+
+    @Query("SELECT new com.gadgetmart.order.dto.OrderSummary(o.id, o.orderNumber, o.userEmail, o.totalAmount, o.status, o.createdAt) "
+            + "FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findSummaries(Pageable pageable);
+
+    @Query("SELECT new com.gadgetmart.order.dto.OrderSummary(o.id, o.orderNumber, o.userEmail, o.totalAmount, o.status, o.createdAt) "
+            + "FROM Order o WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findSummariesBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable pageable);
+
+    @Query("SELECT new com.gadgetmart.order.dto.OrderSummary(o.id, o.orderNumber, o.userEmail, o.totalAmount, o.status, o.createdAt) "
+            + "FROM Order o WHERE o.userEmail = :email ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findSummariesByUser(@Param("email") String email, Pageable pageable);
+
+    @Query("SELECT new com.gadgetmart.order.dto.OrderSummary(o.id, o.orderNumber, o.userEmail, o.totalAmount, o.status, o.createdAt) "
+            + "FROM Order o WHERE o.userEmail = :email "
+            + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findSummariesByUserBefore(@Param("email") String email,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Items of a whole page in one query
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,96 @@
+package com.gadgetmart.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Fast path for Idempotency-Key dedup. A key is claimed with SET NX as PENDING on a short lease
+ * while its order is placed, then holds the order number until the TTL expires. The lease means
+ * a claim left behind by a crashed instance frees itself within seconds. Redis is an accelerator only:
+ * the unique idempotency_key column on orders is what guarantees one order per key, so when
+ * Redis is down placement simply carries on.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    private static final String KEY_PREFIX = "order:idempotency:";
+    private static final String PENDING = "PENDING";
+    private static final long POLL_MS = 50;
+
+    public enum Outcome {
+        CLAIMED, COMPLETED, IN_FLIGHT, UNAVAILABLE
+    }
+
+    public record Claim(Outcome outcome, String orderNumber) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final Duration pendingLease;
+    private final long inFlightWaitMs;
+
+    public IdempotencyStore(StringRedisTemplate redisTemplate,
+            @Value("${order.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${order.idempotency.pending-lease-seconds:30}") long pendingLeaseSeconds,
+            @Value("${order.idempotency.in-flight-wait-ms:5000}") long inFlightWaitMs) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.pendingLease = Duration.ofSeconds(pendingLeaseSeconds);
+        this.inFlightWaitMs = inFlightWaitMs;
+    }
+
+    /**
+     * Claims the key, or reports the order it already produced. A key whose first request is
+     * still running is waited on for up to in-flight-wait-ms, since retries usually arrive
+     * while the original is in progress.
+     */
+    public Claim claim(String key) {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + key, PENDING, pendingLease))) {
+                return new Claim(Outcome.CLAIMED, null);
+            }
+            long deadline = System.currentTimeMillis() + inFlightWaitMs;
+            while (true) {
+                String value = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+                if (value == null) {
+                    // The first attempt failed and released the key; take it over
+                    return claim(key);
+                }
+                if (!PENDING.equals(value)) {
+                    return new Claim(Outcome.COMPLETED, value);
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    return new Claim(Outcome.IN_FLIGHT, null);
+                }
+                Thread.sleep(POLL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Claim(Outcome.IN_FLIGHT, null);
+        } catch (Exception e) {
+            log.warn("Idempotency store unavailable, relying on the database: {}", e.getMessage());
+            return new Claim(Outcome.UNAVAILABLE, null);
+        }
+    }
+
+    public void complete(String key, String orderNumber) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, orderNumber, ttl);
+        } catch (Exception e) {
+            log.warn("Failed to record idempotency key: {}", e.getMessage());
+        }
+    }
+
+    public void release(String key) {
+        try {
+            redisTemplate.delete(KEY_PREFIX + key);
+        } catch (Exception e) {
+            log.warn("Failed to release idempotency key: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.gadgetmart.order.service;
+
+import com.gadgetmart.order.model.InventoryStock;
+import com.gadgetmart.order.model.OrderItem;
+import com.gadgetmart.order.repository.InventoryStockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stock reservations for GadgetMart-owned SKUs. The counters live in Redis and every operation is
+ * a single Lua script, so a flash sale on one SKU is serialized by Redis instead of queueing on a
+ * Postgres row lock. A reservation holds units from placement until payment commits it or the
+ * payment timeout releases it; an order's items are reserved all or nothing.
+ * <p>
+ * Postgres (inventory_stock) is written behind by InventoryWriteBehind. If Redis loses its data,
+ * counters are reloaded from there with in-flight reservations returned to sale; a payment that
+ * arrives for such an order reserves its units again (see {@link OrderService#commitStock}).
+ */
+@Service
+@Slf4j
+public class InventoryService {
+
+    private static final String STOCK_PREFIX = "inventory:stock:";
+    private static final String RESERVATION_PREFIX = "inventory:reservation:";
+    // SKUs whose counters changed since the last write-behind pass
+    private static final String DIRTY_KEY = "inventory:dirty";
+    // orderNumber -> epoch millis at which its unpaid reservation expires
+    private static final String EXPIRY_KEY = "inventory:expiry";
+    // Product ids known to have no stock row, so they are not looked up in Postgres on every order
+    private static final String UNTRACKED_KEY = "inventory:untracked";
+
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    /*
+     * KEYS: reservation, dirty, expiry, untracked, then one stock hash per SKU.
+     * ARGV: orderNumber, expiry millis, then productId and quantity per SKU.
+     * Returns {1} when reserved (or the order already was), {0, i} when SKU i is short and
+     * {-1, i, ...} with the SKUs that are neither loaded nor known to be untracked.
+     */
+    private static final RedisScript<List> RESERVE = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then return {1} end
+            local n = #KEYS - 4
+            local available, missing = {}, {-1}
+            for i = 1, n do
+              available[i] = redis.call('HGET', KEYS[i + 4], 'available')
+              if not available[i] and redis.call('SISMEMBER', KEYS[4], ARGV[1 + 2 * i]) == 0 then
+                missing[#missing + 1] = i
+              end
+            end
+            if #missing > 1 then return missing end
+            for i = 1, n do
+              if available[i] and tonumber(available[i]) < tonumber(ARGV[2 + 2 * i]) then return {0, i} end
+            end
+            local reserved = false
+            for i = 1, n do
+              if available[i] then
+                local qty = tonumber(ARGV[2 + 2 * i])
+                redis.call('HINCRBY', KEYS[i + 4], 'available', -qty)
+                redis.call('HINCRBY', KEYS[i + 4], 'reserved', qty)
+                redis.call('HSET', KEYS[1], ARGV[1 + 2 * i], qty)
+                redis.call('SADD', KEYS[2], ARGV[1 + 2 * i])
+                reserved = true
+              end
+            end
+            if reserved then redis.call('ZADD', KEYS[3], ARGV[2], ARGV[1]) end
+            return {1}
+            """, List.class);
+
+    /*
+     * KEYS: reservation, dirty, expiry. ARGV: stock key prefix, orderNumber, 'commit' or 'release',
+     * tombstone TTL seconds. A committed reservation leaves a '#settled' tombstone so a redelivered
+     * payment event can neither commit twice nor reserve again.
+     */
+    private static final RedisScript<Long> SETTLE = new DefaultRedisScript<>("""
+            if redis.call('HEXISTS', KEYS[1], '#settled') == 1 then return 0 end
+            local items = redis.call('HGETALL', KEYS[1])
+            redis.call('ZREM', KEYS[3], ARGV[2])
+            if #items == 0 then return 0 end
+            for i = 1, #items, 2 do
+              local stock = ARGV[1] .. items[i]
+              local qty = tonumber(items[i + 1])
+              redis.call('HINCRBY', stock, 'reserved', -qty)
+              if ARGV[3] == 'release' then redis.call('HINCRBY', stock, 'available', qty) end
+              redis.call('SADD', KEYS[2], items[i])
+            end
+            redis.call('DEL', KEYS[1])
+            if ARGV[3] == 'commit' then
+              redis.call('HSET', KEYS[1], '#settled', '1')
+              redis.call('EXPIRE', KEYS[1], ARGV[4])
+            end
+            return 1
+            """, Long.class);
+
+    // KEYS: stock hash. ARGV: available. Only fills a SKU that is not loaded yet.
+    private static final RedisScript<Long> LOAD = new DefaultRedisScript<>("""
+            if redis.call('HEXISTS', KEYS[1], 'available') == 1 then return 0 end
+            redis.call('HSET', KEYS[1], 'available', ARGV[1], 'reserved', '0')
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final InventoryStockRepository inventoryStockRepository;
+    private final Duration paymentTimeout;
+    private final Duration settledTtl;
+
+    public InventoryService(StringRedisTemplate redisTemplate, InventoryStockRepository inventoryStockRepository,
+            @Value("${order.inventory.payment-timeout-minutes:15}") long paymentTimeoutMinutes,
+            @Value("${order.inventory.settled-ttl-hours:168}") long settledTtlHours) {
+        this.redisTemplate = redisTemplate;
+        this.inventoryStockRepository = inventoryStockRepository;
+        this.paymentTimeout = Duration.ofMinutes(paymentTimeoutMinutes);
+        this.settledTtl = Duration.ofHours(settledTtlHours);
+    }
+
+    /**
+     * Reserves the tracked items of an order; items of untracked products pass through.
+     *
+     * @throws IllegalStateException when a tracked SKU has too few units, or stock cannot be checked
+     */
+    public void reserve(String orderNumber, List<OrderItem> items) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            if (item.getProductId() != null && item.getQuantity() != null && item.getQuantity() > 0) {
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        try {
+            for (int attempt = 0; attempt < MAX_RESERVE_ATTEMPTS; attempt++) {
+                List<String> productIds = new ArrayList<>(quantities.keySet());
+                List<?> result = runReserve(orderNumber, productIds, quantities);
+                long status = (Long) result.get(0);
+                if (status == 1) {
+                    return;
+                }
+                if (status == 0) {
+                    String productId = productIds.get(((Long) result.get(1)).intValue() - 1);
+                    throw new IllegalStateException("Insufficient stock for product " + productId);
+                }
+                List<String> missing = result.subList(1, result.size()).stream()
+                        .map(index -> productIds.get(((Long) index).intValue() - 1))
+                        .toList();
+                load(missing);
+            }
+        } catch (DataAccessException e) {
+            // Without Redis nothing can be reserved; only orders that need no stock go through
+            if (!inventoryStockRepository.findAllById(quantities.keySet()).isEmpty()) {
+                log.error("Inventory store unavailable, rejecting order {}: {}", orderNumber, e.getMessage());
+                throw new IllegalStateException("Inventory is temporarily unavailable");
+            }
+            log.warn("Inventory store unavailable, order {} has no stocked items: {}", orderNumber, e.getMessage());
+            return;
+        }
+        throw new IllegalStateException("Inventory is temporarily unavailable");
+    }
+
+    /**
+     * Turns an order's reservation into a sale.
+     *
+     * @return false when the order has no live reservation
+     */
+    public boolean commit(String orderNumber) {
+        return settle(orderNumber, "commit");
+    }
+
+    /**
+     * Puts an order's reserved units back on sale.
+     *
+     * @return false when the order has no live reservation
+     */
+    public boolean release(String orderNumber) {
+        return settle(orderNumber, "release");
+    }
+
+    /**
+     * Orders whose reservation has outlived the payment timeout, oldest first.
+     */
+    public List<String> expiredReservations(int limit) {
+        Set<String> expired = redisTemplate.opsForZSet()
+                .rangeByScore(EXPIRY_KEY, 0, System.currentTimeMillis(), 0, limit);
+        return expired == null ? List.of() : List.copyOf(expired);
+    }
+
+    /**
+     * Live counters of a SKU, or the stored row if it is not loaded in Redis.
+     */
+    public InventoryStock getStock(String productId) {
+        InventoryStock stock = inventoryStockRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("No stock tracked for product " + productId));
+        List<Object> counters = redisTemplate.opsForHash().multiGet(STOCK_PREFIX + productId,
+                List.of("available", "reserved"));
+        if (counters.get(0) != null) {
+            stock.setAvailable(Integer.parseInt((String) counters.get(0)));
+            stock.setReserved(Integer.parseInt((String) counters.get(1)));
+        }
+        return stock;
+    }
+
+    /**
+     * Sets how many units of a SKU can still be sold (a restock or a correction), starting to
+     * track it if it was not. Units already reserved are not affected.
+     */
+    public InventoryStock setAvailable(String productId, String productName, int available) {
+        InventoryStock stock = inventoryStockRepository.findById(productId)
+                .orElseGet(() -> InventoryStock.builder().productId(productId).build());
+        if (productName != null) {
+            stock.setProductName(productName);
+        }
+        stock.setAvailable(available);
+        stock.setUpdatedAt(LocalDateTime.now());
+        inventoryStockRepository.save(stock);
+
+        redisTemplate.opsForHash().put(STOCK_PREFIX + productId, "available", String.valueOf(available));
+        redisTemplate.opsForHash().putIfAbsent(STOCK_PREFIX + productId, "reserved", "0");
+        redisTemplate.opsForSet().remove(UNTRACKED_KEY, productId);
+        markDirty(List.of(productId));
+        log.info("Stock of {} set to {} available", productId, available);
+        return getStock(productId);
+    }
+
+    /**
+     * Takes up to limit changed SKUs off the dirty set and reads their current counters.
+     */
+    List<InventoryStock> drainDirty(int limit) {
+        List<String> productIds = redisTemplate.opsForSet().pop(DIRTY_KEY, limit);
+        if (productIds == null || productIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object> counters = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String productId : productIds) {
+                connection.hashCommands().hMGet(bytes(STOCK_PREFIX + productId), bytes("available"), bytes("reserved"));
+            }
+            return null;
+        });
+
+        List<InventoryStock> snapshots = new ArrayList<>(productIds.size());
+        for (int i = 0; i < productIds.size(); i++) {
+            List<?> values = (List<?>) counters.get(i);
+            if (values == null || values.get(0) == null) {
+                continue;
+            }
+            snapshots.add(InventoryStock.builder()
+                    .productId(productIds.get(i))
+                    .available(Integer.parseInt((String) values.get(0)))
+                    .reserved(values.get(1) == null ? 0 : Integer.parseInt((String) values.get(1)))
+                    .build());
+        }
+        return snapshots;
+    }
+
+    void markDirty(Collection<String> productIds) {
+        redisTemplate.opsForSet().add(DIRTY_KEY, productIds.toArray(String[]::new));
+    }
+
+    private List<?> runReserve(String orderNumber, List<String> productIds, Map<String, Integer> quantities) {
+        List<String> keys = new ArrayList<>(productIds.size() + 4);
+        keys.add(RESERVATION_PREFIX + orderNumber);
+        keys.add(DIRTY_KEY);
+        keys.add(EXPIRY_KEY);
+        keys.add(UNTRACKED_KEY);
+        List<String> args = new ArrayList<>(productIds.size() * 2 + 2);
+        args.add(orderNumber);
+        args.add(String.valueOf(System.currentTimeMillis() + paymentTimeout.toMillis()));
+        for (String productId : productIds) {
+            keys.add(STOCK_PREFIX + productId);
+            args.add(productId);
+            args.add(String.valueOf(quantities.get(productId)));
+        }
+        return redisTemplate.execute(RESERVE, keys, args.toArray());
+    }
+
+    /**
+     * Loads SKUs that have a stock row into Redis and remembers the rest as untracked. Units that
+     * the row shows as reserved were held by reservations Redis no longer has, so they go back on
+     * sale.
+     */
+    private void load(List<String> productIds) {
+        Map<String, InventoryStock> rows = inventoryStockRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(InventoryStock::getProductId, stock -> stock));
+        for (String productId : productIds) {
+            InventoryStock row = rows.get(productId);
+            if (row == null) {
+                redisTemplate.opsForSet().add(UNTRACKED_KEY, productId);
+            } else if (Long.valueOf(1).equals(redisTemplate.execute(LOAD, List.of(STOCK_PREFIX + productId),
+                    String.valueOf(row.getAvailable() + row.getReserved())))) {
+                log.info("Loaded stock of {} into Redis: {} available", productId, row.getAvailable() + row.getReserved());
+            }
+        }
+    }
+
+    private boolean settle(String orderNumber, String mode) {
+        Long settled = redisTemplate.execute(SETTLE,
+                List.of(RESERVATION_PREFIX + orderNumber, DIRTY_KEY, EXPIRY_KEY),
+                STOCK_PREFIX, orderNumber, mode, String.valueOf(settledTtl.toSeconds()));
+        return Long.valueOf(1).equals(settled);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
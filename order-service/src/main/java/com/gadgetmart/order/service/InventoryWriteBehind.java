@@ -0,0 +1,68 @@
+package com.gadgetmart.order.service;
+
+import com.gadgetmart.order.model.InventoryStock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Copies changed Redis stock counters to inventory_stock. However many reservations hit a SKU
+ * between passes, Postgres sees one batched UPDATE per SKU, so it never takes part in the
+ * contention. SKUs whose write fails are marked dirty again and retried on the next pass.
+ */
+@Component
+@Slf4j
+public class InventoryWriteBehind {
+
+    private static final String UPDATE_STOCK =
+            "UPDATE inventory_stock SET available = ?, reserved = ?, updated_at = ? WHERE product_id = ?";
+
+    private final InventoryService inventoryService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${order.inventory.flush-batch-size:500}")
+    private int batchSize;
+
+    public InventoryWriteBehind(InventoryService inventoryService, JdbcTemplate jdbcTemplate) {
+        this.inventoryService = inventoryService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${order.inventory.flush-interval-ms:1000}")
+    public void flush() {
+        List<InventoryStock> batch;
+        try {
+            batch = inventoryService.drainDirty(batchSize);
+        } catch (Exception e) {
+            log.warn("Inventory write-behind could not read Redis: {}", e.getMessage());
+            return;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_STOCK, batch, batch.size(), (statement, stock) -> {
+                statement.setInt(1, stock.getAvailable());
+                statement.setInt(2, stock.getReserved());
+                statement.setTimestamp(3, now);
+                statement.setString(4, stock.getProductId());
+            });
+            log.debug("Wrote stock of {} SKUs behind", batch.size());
+        } catch (Exception e) {
+            log.warn("Inventory write-behind of {} SKUs failed, will retry: {}", batch.size(), e.getMessage());
+            try {
+                inventoryService.markDirty(batch.stream().map(InventoryStock::getProductId).toList());
+            } catch (Exception redisError) {
+                log.error("Could not requeue {} SKUs for write-behind: {}", batch.size(), redisError.getMessage());
+            }
+        }
+    }
+}
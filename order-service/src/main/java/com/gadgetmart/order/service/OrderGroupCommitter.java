@@ -0,0 +1,133 @@
+package com.gadgetmart.order.service;
+
+import com.gadgetmart.order.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for order placement: concurrent placeOrder calls hand their order to one writer
+ * thread, which saves everything that arrived within max-wait-ms (up to max-batch orders) in a
+ * single transaction. Hibernate then flushes them as JDBC batches and Postgres syncs one
+ * commit instead of one per order. Each caller still returns only after its order is committed.
+ * <p>
+ * If a group fails, its orders are retried one per transaction so one bad order cannot fail
+ * the others.
+ */
+@Component
+@ConditionalOnProperty(name = "order.group-commit.enabled", havingValue = "true")
+@Slf4j
+public class OrderGroupCommitter {
+
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer = new Thread(this::writeLoop, "order-group-commit");
+    private volatile boolean running = true;
+
+    @Value("${order.group-commit.max-batch:200}")
+    private int maxBatch;
+
+    @Value("${order.group-commit.max-wait-ms:5}")
+    private long maxWaitMs;
+
+    public OrderGroupCommitter(OrderService orderService, TransactionTemplate transactionTemplate,
+            @Value("${order.group-commit.queue-capacity:10000}") int queueCapacity) {
+        this.orderService = orderService;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Blocks until the order is committed, or rethrows why it was not.
+     */
+    public void commit(Order order) {
+        Pending pending = new Pending(order, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            // Saturated: write it on the caller's thread rather than queue without bound
+            transactionTemplate.executeWithoutResult(status -> orderService.persist(order));
+            return;
+        }
+        try {
+            pending.done().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> group = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (group.size() < maxBatch) {
+                    Pending next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                write(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> group) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> group.forEach(p -> orderService.persist(p.order())));
+            group.forEach(p -> p.done().complete(null));
+            log.debug("Group-committed {} orders", group.size());
+        } catch (RuntimeException groupError) {
+            log.warn("Group commit of {} orders failed, retrying individually: {}", group.size(),
+                    groupError.getMessage());
+            for (Pending pending : group) {
+                try {
+                    // The failed transaction may have assigned ids; start clean
+                    pending.order().setId(null);
+                    pending.order().getOrderItems().forEach(item -> item.setId(null));
+                    transactionTemplate.executeWithoutResult(status -> orderService.persist(pending.order()));
+                    pending.done().complete(null);
+                } catch (RuntimeException e) {
+                    pending.done().completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private record Pending(Order order, CompletableFuture<Void> done) {
+    }
+}
@@ -1,20 +1,32 @@
 package com.gadgetmart.order.service;
 
+import com.gadgetmart.order.dto.OrderPage;
 import com.gadgetmart.order.dto.OrderRequest;
+import com.gadgetmart.order.dto.OrderSummary;
+import com.gadgetmart.order.dto.PlacedOrder;
 import com.gadgetmart.order.event.OrderPlacedEvent;
 import com.gadgetmart.order.model.Order;
 import com.gadgetmart.order.model.OrderItem;
 import com.gadgetmart.order.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,12 +35,81 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<OrderGroupCommitter> groupCommitter;
+    private final IdempotencyStore idempotencyStore;
+    private final InventoryService inventoryService;
 
     private static final String ORDER_PLACED_TOPIC = "order.placed";
+    private static final String ORDER_STATUS_TOPIC = "order.status.update";
+
+    static final String STATUS_PLACED = "PLACED";
+    static final String STATUS_PAID = "PAID";
+    static final String STATUS_PAYMENT_EXPIRED = "PAYMENT_EXPIRED";
+
+    // Page size of GET /api/orders, which is not cursor-paginated
+    @Value("${order.listing.unpaged-limit:100}")
+    private int unpagedLimit;
 
-    @Transactional
     public String placeOrder(OrderRequest orderRequest) {
+        return createOrder(orderRequest, null);
+    }
+
+    /**
+     * Places an order at most once per Idempotency-Key (scoped to the user): a retry gets the
+     * original order number back without writing anything.
+     */
+    public PlacedOrder placeOrder(OrderRequest orderRequest, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return new PlacedOrder(createOrder(orderRequest, null), false);
+        }
+        String scopedKey = orderRequest.getUserEmail() + ":" + idempotencyKey;
+
+        IdempotencyStore.Claim claim = idempotencyStore.claim(scopedKey);
+        if (claim.outcome() == IdempotencyStore.Outcome.COMPLETED) {
+            log.info("Replayed order {} for idempotency key", claim.orderNumber());
+            return new PlacedOrder(claim.orderNumber(), true);
+        }
+        if (claim.outcome() == IdempotencyStore.Outcome.IN_FLIGHT) {
+            throw new IllegalStateException("An order with this Idempotency-Key is still being placed");
+        }
+
+        try {
+            String orderNumber = createOrder(orderRequest, scopedKey);
+            idempotencyStore.complete(scopedKey, orderNumber);
+            return new PlacedOrder(orderNumber, false);
+        } catch (DataIntegrityViolationException e) {
+            // Placed by an earlier attempt whose Redis entry is gone (expired or Redis was down)
+            String existing = violates(e, Order.IDEMPOTENCY_KEY_CONSTRAINT)
+                    ? orderRepository.findOrderNumberByIdempotencyKey(scopedKey).orElse(null)
+                    : null;
+            if (existing == null) {
+                if (claim.outcome() == IdempotencyStore.Outcome.CLAIMED) {
+                    idempotencyStore.release(scopedKey);
+                }
+                throw e;
+            }
+            idempotencyStore.complete(scopedKey, existing);
+            return new PlacedOrder(existing, true);
+        } catch (RuntimeException e) {
+            if (claim.outcome() == IdempotencyStore.Outcome.CLAIMED) {
+                idempotencyStore.release(scopedKey);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return constraint.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    private String createOrder(OrderRequest orderRequest, String idempotencyKey) {
         log.info("Processing order for user: {}", orderRequest.getUserEmail());
 
         List<OrderItem> orderItems = orderRequest.getItems().stream()
@@ -41,53 +122,113 @@ public class OrderService {
 
         Order order = Order.builder()
                 .orderNumber(UUID.randomUUID().toString())
+                .idempotencyKey(idempotencyKey)
                 .userEmail(orderRequest.getUserEmail())
                 .orderItems(orderItems)
                 .totalAmount(totalAmount)
-                .status("PLACED")
+                .status(STATUS_PLACED)
                 .createdAt(LocalDateTime.now())
                 .build();
+        orderItems.forEach(item -> item.setOrder(order));
 
-        orderRepository.save(order);
+        // Stock is held before the order is written and given back if the write fails
+        inventoryService.reserve(order.getOrderNumber(), orderItems);
+        try {
+            // With group commit on, concurrent orders share one transaction and one flush
+            OrderGroupCommitter committer = groupCommitter.getIfAvailable();
+            if (committer != null) {
+                committer.commit(order);
+            } else {
+                transactionTemplate.executeWithoutResult(status -> persist(order));
+            }
+        } catch (RuntimeException e) {
+            try {
+                inventoryService.release(order.getOrderNumber());
+            } catch (RuntimeException releaseError) {
+                // Left for ReservationSweeper, which releases reservations without an order row
+                log.warn("Could not release stock of unplaced order {}: {}", order.getOrderNumber(),
+                        releaseError.getMessage());
+            }
+            throw e;
+        }
         log.info("Order {} placed successfully for {}", order.getOrderNumber(), order.getUserEmail());
 
-        // 🚀 Publish Kafka event — triggers notification, inventory, analytics
-        // downstream
-        publishOrderPlacedEvent(order);
-
         return order.getOrderNumber();
     }
 
+    /**
+     * Saves a new order and queues its order.placed event. Runs inside the caller's transaction,
+     * so the event exists exactly when the order does.
+     */
+    public void persist(Order order) {
+        orderRepository.save(order);
+
+        // 🚀 Queue Kafka event in the same transaction — OutboxRelay publishes it once committed;
+        // triggers notification, inventory, analytics downstream
+        publishOrderPlacedEvent(order);
+    }
+
     private void publishOrderPlacedEvent(Order order) {
-        try {
-            List<OrderPlacedEvent.OrderItemEntry> eventItems = order.getOrderItems().stream()
-                    .map(item -> OrderPlacedEvent.OrderItemEntry.builder()
-                            .productName(item.getProductName())
-                            .quantity(item.getQuantity())
-                            .price(item.getPrice())
-                            .build())
-                    .collect(Collectors.toList());
-
-            OrderPlacedEvent event = OrderPlacedEvent.builder()
-                    .orderNumber(order.getOrderNumber())
-                    .userEmail(order.getUserEmail())
-                    .totalAmount(order.getTotalAmount())
-                    .items(eventItems)
-                    .build();
-
-            kafkaTemplate.send(ORDER_PLACED_TOPIC, order.getOrderNumber(), event);
-            log.info("📨 Kafka event published to '{}' for order {}", ORDER_PLACED_TOPIC, order.getOrderNumber());
-        } catch (Exception e) {
-            log.error("Failed to publish Kafka event for order {}: {}", order.getOrderNumber(), e.getMessage());
-        }
+        List<OrderPlacedEvent.OrderItemEntry> eventItems = order.getOrderItems().stream()
+                .map(item -> OrderPlacedEvent.OrderItemEntry.builder()
+                        .productName(item.getProductName())
+                        .quantity(item.getQuantity())
+                        .price(item.getPrice())
+                        .build())
+                .collect(Collectors.toList());
+
+        OrderPlacedEvent event = OrderPlacedEvent.builder()
+                .orderNumber(order.getOrderNumber())
+                .userEmail(order.getUserEmail())
+                .totalAmount(order.getTotalAmount())
+                .items(eventItems)
+                .build();
+
+        outboxService.append(ORDER_PLACED_TOPIC, order.getOrderNumber(), event);
+        log.info("📨 Kafka event queued for '{}' for order {}", ORDER_PLACED_TOPIC, order.getOrderNumber());
     }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    /**
+     * Newest orders (optionally of one user) with their items; capped at unpaged-limit, use
+     * {@link #listOrders} to go further back.
+     */
+    public List<OrderSummary> getRecentOrders(String email) {
+        return listOrders(email, null, unpagedLimit, true).getItems();
     }
 
-    public List<Order> getOrdersByUser(String email) {
-        return orderRepository.findByUserEmail(email);
+    /**
+     * One keyset page of order summaries, newest first. Items, when requested, come from a
+     * single batched fetch for the page.
+     */
+    @Transactional(readOnly = true)
+    public OrderPage listOrders(String email, String cursor, int size, boolean includeItems) {
+        PageRequest page = PageRequest.ofSize(size);
+        List<OrderSummary> summaries;
+        if (cursor == null || cursor.isBlank()) {
+            summaries = email == null
+                    ? orderRepository.findSummaries(page)
+                    : orderRepository.findSummariesByUser(email, page);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            summaries = email == null
+                    ? orderRepository.findSummariesBefore(after.createdAt(), after.id(), page)
+                    : orderRepository.findSummariesByUserBefore(email, after.createdAt(), after.id(), page);
+        }
+
+        if (includeItems && !summaries.isEmpty()) {
+            Map<Long, Order> withItems = orderRepository
+                    .findWithItemsByIdIn(summaries.stream().map(OrderSummary::getId).toList()).stream()
+                    .collect(Collectors.toMap(Order::getId, Function.identity()));
+            // An order deleted since the summary query simply shows without items
+            summaries.forEach(summary -> {
+                Order order = withItems.get(summary.getId());
+                summary.setOrderItems(order == null ? List.of() : List.copyOf(order.getOrderItems()));
+            });
+        }
+
+        OrderSummary last = summaries.isEmpty() ? null : summaries.get(summaries.size() - 1);
+        String nextCursor = summaries.size() < size ? null : new Cursor(last.getCreatedAt(), last.getId()).encode();
+        return new OrderPage(summaries, nextCursor);
     }
 
     public Order getOrderByNumber(String orderNumber) {
@@ -95,17 +236,50 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderNumber));
     }
 
+    @Transactional
     public Order updateOrderStatus(String orderNumber, String status) {
         Order order = getOrderByNumber(orderNumber);
         order.setStatus(status);
         orderRepository.save(order);
-        // Publish status update event
-        kafkaTemplate.send("order.status.update", orderNumber,
+        // Queue status update event with the status change
+        outboxService.append(ORDER_STATUS_TOPIC, orderNumber,
                 java.util.Map.of("orderNumber", orderNumber, "userEmail", order.getUserEmail(), "status", status));
-        log.info("📨 Kafka event published to 'order.status.update' for order {}: {}", orderNumber, status);
+        log.info("📨 Kafka event queued for '{}' for order {}: {}", ORDER_STATUS_TOPIC, orderNumber, status);
         return order;
     }
 
+    /**
+     * Turns the order's stock reservation into a sale once it is paid. Without a live
+     * reservation the items are reserved again first: that covers a payment that arrived after
+     * the payment timeout released them, and is a no-op for orders already committed or without
+     * stocked items.
+     *
+     * @throws IllegalStateException when a late payment finds its items sold out
+     */
+    @Transactional(readOnly = true)
+    public void commitStock(String orderNumber) {
+        if (inventoryService.commit(orderNumber)) {
+            return;
+        }
+        Order order = getOrderByNumber(orderNumber);
+        inventoryService.reserve(orderNumber, order.getOrderItems());
+        inventoryService.commit(orderNumber);
+    }
+
+    /**
+     * Marks an order whose payment timed out, unless it was paid in the meantime.
+     */
+    @Transactional
+    public void expireUnpaidOrder(String orderNumber) {
+        if (orderRepository.updateStatusIf(orderNumber, STATUS_PLACED, STATUS_PAYMENT_EXPIRED) == 0) {
+            return;
+        }
+        Order order = getOrderByNumber(orderNumber);
+        outboxService.append(ORDER_STATUS_TOPIC, orderNumber,
+                java.util.Map.of("orderNumber", orderNumber, "userEmail", order.getUserEmail(), "status",
+                        STATUS_PAYMENT_EXPIRED));
+    }
+
     private OrderItem mapToEntity(OrderRequest.OrderItemDto itemDto) {
         return OrderItem.builder()
                 .productId(itemDto.getProductId())
@@ -114,4 +288,24 @@ public class OrderService {
                 .quantity(itemDto.getQuantity())
                 .build();
     }
+
+    /**
+     * Position after the last order of a page, as an opaque URL-safe token.
+     */
+    private record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+        }
+    }
 }
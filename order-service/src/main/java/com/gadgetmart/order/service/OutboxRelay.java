@@ -0,0 +1,131 @@
+package com.gadgetmart.order.service;
+
+import com.gadgetmart.order.model.OutboxEvent;
+import com.gadgetmart.order.repository.OutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the outbox. Each pass locks a batch of unsent rows (SKIP LOCKED, so replicas split
+ * the work), sends them all without waiting in between, waits for the acks once, and marks the
+ * acknowledged rows sent with a single UPDATE. Delivery is at-least-once.
+ * <p>
+ * Only the acknowledged prefix of a batch is marked: from the first failed row on, everything
+ * stays unsent and is retried in id order on the next pass, so a later event for an order can
+ * never be marked sent while an earlier one is still pending. A send that fails straight away
+ * (no metadata, broker unreachable) ends the pass without queueing the rest of the batch.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final KafkaTemplate<String, String> outboxKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${order.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    public OutboxRelay(OutboxRepository outboxRepository, KafkaTemplate<String, String> outboxKafkaTemplate,
+            TransactionTemplate transactionTemplate) {
+        this.outboxRepository = outboxRepository;
+        this.outboxKafkaTemplate = outboxKafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            // Keep draining while batches come back full
+            Integer sent;
+            do {
+                sent = transactionTemplate.execute(status -> relayBatch());
+            } while (sent != null && sent == batchSize);
+        } catch (Exception e) {
+            log.warn("Outbox relay pass failed: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxRepository.lockUnsent(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            CompletableFuture<?> send;
+            try {
+                send = outboxKafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload());
+            } catch (RuntimeException e) {
+                log.warn("Outbox event {} to '{}' could not be sent, ending this pass: {}", event.getId(),
+                        event.getTopic(), e.getMessage());
+                break;
+            }
+            sends.add(send);
+            if (send.isCompletedExceptionally()) {
+                // Failed before reaching the broker (metadata wait timed out); the rest would too
+                break;
+            }
+        }
+        if (sends.isEmpty()) {
+            return 0;
+        }
+        outboxKafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> acknowledged = new ArrayList<>(sends.size());
+        for (int i = 0; i < sends.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                // Later acks are not marked either, so per-key order survives the retry
+                log.warn("Outbox event {} to '{}' not acknowledged, retrying it and the {} after it: {}",
+                        batch.get(i).getId(), batch.get(i).getTopic(), batch.size() - i - 1, e.getMessage());
+                break;
+            }
+        }
+
+        if (!acknowledged.isEmpty()) {
+            outboxRepository.markSent(acknowledged, LocalDateTime.now());
+            log.debug("📨 Relayed {} outbox events", acknowledged.size());
+        }
+        return acknowledged.size();
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.cleanup-interval-ms:3600000}")
+    public void deleteSent() {
+        try {
+            Integer deleted = transactionTemplate.execute(status -> outboxRepository
+                    .deleteSentBefore(LocalDateTime.now().minus(Duration.ofHours(retentionHours))));
+            if (deleted != null && deleted > 0) {
+                log.info("Deleted {} relayed outbox events", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Outbox cleanup failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.gadgetmart.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gadgetmart.order.model.OutboxEvent;
+import com.gadgetmart.order.repository.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queues Kafka messages in the order_outbox table. Must be called inside the transaction that
+ * changes the order, so the message exists if and only if the change commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String topic, String key, Object payload) {
+        try {
+            outboxRepository.save(OutboxEvent.builder()
+                    .topic(topic)
+                    .messageKey(key)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize event for " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.gadgetmart.order.service;
+
+import com.gadgetmart.order.model.Order;
+import com.gadgetmart.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces the payment timeout: reservations of orders still unpaid when it runs out are
+ * released and the order is marked PAYMENT_EXPIRED. The release script is atomic, so replicas
+ * can sweep side by side without releasing anything twice.
+ */
+@Component
+@Slf4j
+public class ReservationSweeper {
+
+    private final InventoryService inventoryService;
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+
+    @Value("${order.inventory.sweep-batch-size:200}")
+    private int batchSize;
+
+    public ReservationSweeper(InventoryService inventoryService, OrderService orderService,
+            OrderRepository orderRepository) {
+        this.inventoryService = inventoryService;
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${order.inventory.sweep-interval-ms:5000}")
+    public void sweep() {
+        try {
+            List<String> expired;
+            do {
+                expired = inventoryService.expiredReservations(batchSize);
+                sweepBatch(expired);
+            } while (expired.size() == batchSize);
+        } catch (Exception e) {
+            log.warn("Reservation sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private void sweepBatch(List<String> orderNumbers) {
+        if (orderNumbers.isEmpty()) {
+            return;
+        }
+        Map<String, String> statuses = orderRepository.findByOrderNumberIn(orderNumbers).stream()
+                .collect(Collectors.toMap(Order::getOrderNumber, Order::getStatus));
+
+        for (String orderNumber : orderNumbers) {
+            if (OrderService.STATUS_PAID.equals(statuses.get(orderNumber))) {
+                // Paid, but the commit from payment.success never landed
+                inventoryService.commit(orderNumber);
+            } else if (inventoryService.release(orderNumber) && statuses.containsKey(orderNumber)) {
+                // No order row means placement failed after reserving; releasing is all there is to do
+                orderService.expireUnpaidOrder(orderNumber);
+                log.info("⏰ Payment timeout for order {}, stock released", orderNumber);
+            }
+        }
+    }
+}
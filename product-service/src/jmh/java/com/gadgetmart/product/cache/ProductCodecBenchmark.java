@@ -0,0 +1,144 @@
+package com.gadgetmart.product.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gadgetmart.product.model.PriceSummary;
+import com.gadgetmart.product.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of a cached product: ProductCodec (Smile, gzip above the default
+ * 1024-byte threshold) against the typed-JSON serializer RedisConfig used before it. The
+ * *Uncompressed variants never gzip, which separates the cost of Smile from that of gzip when
+ * tuning compress-threshold-bytes. Payload sizes are printed at setup, since JMH only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductCodecBenchmark {
+
+    private static final String[] PLATFORMS = {"Amazon", "Flipkart", "Croma", "Reliance Digital", "Vijay Sales",
+            "Tata Cliq", "GadgetMart"};
+
+    // 3-7 is a normal product, 40 a long list from marketplace sellers. With retailer URLs even
+    // three prices encode past 1024 bytes, so the default codec gzips all of them.
+    @Param({"3", "7", "40"})
+    public int priceCount;
+
+    private ProductCodec codec;
+    private ProductCodec uncompressedCodec;
+    private GenericJackson2JsonRedisSerializer legacySerializer;
+    private Product product;
+    private byte[] codecBytes;
+    private byte[] uncompressedBytes;
+    private byte[] legacyBytes;
+
+    @Setup
+    public void setUp() {
+        codec = new ProductCodec(1024);
+        uncompressedCodec = new ProductCodec(Integer.MAX_VALUE);
+
+        // The serializer as RedisConfig built it before ProductCodec
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY);
+        legacySerializer = new GenericJackson2JsonRedisSerializer(mapper);
+
+        product = sampleProduct(priceCount);
+        codecBytes = codec.serialize(product);
+        uncompressedBytes = uncompressedCodec.serialize(product);
+        legacyBytes = legacySerializer.serialize(product);
+        System.out.printf("%n%d prices: ProductCodec %d bytes (%s), Smile without gzip %d bytes, legacy JSON %d bytes%n",
+                priceCount, codecBytes.length, codecBytes[2] != 0 ? "gzipped" : "not gzipped",
+                uncompressedBytes.length, legacyBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeCodec() {
+        return codec.serialize(product);
+    }
+
+    @Benchmark
+    public byte[] encodeCodecUncompressed() {
+        return uncompressedCodec.serialize(product);
+    }
+
+    @Benchmark
+    public byte[] encodeLegacyJson() {
+        return legacySerializer.serialize(product);
+    }
+
+    @Benchmark
+    public Product decodeCodec() {
+        return codec.deserialize(codecBytes);
+    }
+
+    @Benchmark
+    public Product decodeCodecUncompressed() {
+        return uncompressedCodec.deserialize(uncompressedBytes);
+    }
+
+    @Benchmark
+    public Object decodeLegacyJson() {
+        return legacySerializer.deserialize(legacyBytes);
+    }
+
+    // Migration path: an entry cached before the deploy, read by the new codec
+    @Benchmark
+    public Product decodeLegacyThroughCodec() {
+        return codec.deserialize(legacyBytes);
+    }
+
+    private static Product sampleProduct(int priceCount) {
+        LocalDateTime now = LocalDateTime.of(2026, 10, 18, 12, 0);
+        List<Product.PlatformPrice> prices = new ArrayList<>(priceCount);
+        for (int i = 0; i < priceCount; i++) {
+            String platform = PLATFORMS[i % PLATFORMS.length] + (i < PLATFORMS.length ? "" : " Seller " + i);
+            prices.add(Product.PlatformPrice.builder()
+                    .platformName(platform)
+                    .platformProductUrl("https://www." + PLATFORMS[i % PLATFORMS.length].toLowerCase().replace(' ', '-')
+                            + ".example/p/samsung-galaxy-s24-ultra-256gb-titanium-gray?sid=" + (1000 + i))
+                    .price(new BigDecimal("129999.00").subtract(BigDecimal.valueOf(i * 250L)))
+                    .currency("INR")
+                    .available(i % 5 != 4)
+                    .promoCode(i % 3 == 0 ? "FESTIVE" + i : null)
+                    .fetchedAt(now.minusMinutes(i))
+                    .build());
+        }
+
+        return Product.builder()
+                .id("6712f0c4e1b2a34d5c6f7a8" + (priceCount % 10))
+                .name("Samsung Galaxy S24 Ultra 256GB")
+                .description("6.8-inch QHD+ display, Snapdragon 8 Gen 3, 200MP camera, S Pen included")
+                .category("Smartphones")
+                .brand("Samsung")
+                .imageUrl("https://images.gadgetmart.example/products/samsung-galaxy-s24-ultra.jpg")
+                .prices(prices)
+                .priceSummary(PriceSummary.of(prices))
+                .lastUpdated(now)
+                .build();
+    }
+}
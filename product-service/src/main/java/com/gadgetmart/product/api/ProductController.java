@@ -1,11 +1,15 @@
 package com.gadgetmart.product.api;
 
 import com.gadgetmart.product.model.Product;
+import com.gadgetmart.product.service.PriceHistory;
 import com.gadgetmart.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
@@ -13,11 +17,47 @@ public class ProductController {
 
     private final ProductService productService;
 
+    @Value("${product.batch.max-size:50}")
+    private int maxBatchSize;
+
+    @Value("${product.history.daily-retention-days:730}")
+    private int maxHistoryDays;
+
     @GetMapping("/{name}")
     public ResponseEntity<Product> getProductByName(@PathVariable String name) {
         Product product = productService.getProductWithPrices(name);
         return ResponseEntity.ok(product);
     }
-    
+
+    /**
+     * Price trend for a product: a series at raw, hourly or daily resolution (chosen from the
+     * range unless given), min/max over the range, the 30-day low and whether today's best
+     * price is a good one. 404 for a product that has never been fetched.
+     */
+    @GetMapping("/{name}/history")
+    public ResponseEntity<PriceHistory> getPriceHistory(@PathVariable String name,
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) PriceHistory.Resolution resolution,
+            @RequestParam(required = false) String platform) {
+        if (days < 1 || days > maxHistoryDays) {
+            return ResponseEntity.badRequest().build();
+        }
+        return productService.getPriceHistory(name, days, resolution, platform)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Resolves a whole grid of products in one call. Names that cannot be resolved are left
+     * out, so the response may be shorter than the request. A null or blank name is a 400.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<Product>> getProductsByName(@RequestBody List<String> names) {
+        if (names.size() > maxBatchSize || names.stream().anyMatch(name -> name == null || name.isBlank())) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsWithPrices(names));
+    }
+
     // Additional endpoints for filtering, search, etc.
 }
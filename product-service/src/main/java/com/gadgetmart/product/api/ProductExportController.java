@@ -0,0 +1,35 @@
+package com.gadgetmart.product.api;
+
+import com.gadgetmart.product.event.ProductChangedEvent;
+import com.gadgetmart.product.service.ProductExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Service-to-service catalog export for search reindexing. The api-gateway's deny-internal
+ * route answers 403 for /internal/** on every service, so this is reachable only inside the network.
+ */
+@RestController
+@RequestMapping("/internal/products/export")
+@RequiredArgsConstructor
+public class ProductExportController {
+
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    private final ProductExportService productExportService;
+
+    @GetMapping("/partitions")
+    public List<ProductExportService.Partition> partitions(@RequestParam(defaultValue = "8") int count) {
+        return productExportService.partitions(Math.max(1, count));
+    }
+
+    @GetMapping
+    public List<ProductChangedEvent> page(@RequestParam String fromId,
+            @RequestParam(required = false) String toId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return productExportService.page(fromId, toId, after, Math.min(Math.max(1, limit), MAX_PAGE_SIZE));
+    }
+}
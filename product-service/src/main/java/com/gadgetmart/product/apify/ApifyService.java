@@ -1,28 +1,39 @@
 package com.gadgetmart.product.apify;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gadgetmart.product.model.Product.PlatformPrice;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Asynchronous Apify integration: starts an actor run, polls its status on a timer and then
+ * streams the dataset items straight into PlatformPrice objects. No thread is parked while the
+ * actor is running, so a slow scrape no longer pins a request or fan-out thread.
+ */
 @Service
 @Slf4j
 public class ApifyService {
 
-    @Value("${apify.token}")
-    private String apifyToken;
+    private static final String API_BASE = "https://api.apify.com/v2";
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
 
     // Actor ID for "Google Shopping Scraper" - covers multiple stores like
     // Flipkart, Amazon, etc.
@@ -30,80 +41,256 @@ public class ApifyService {
     // 'junglee/amazon-scraper')
     private static final String GOOGLE_SHOPPING_ACTOR = "apify~google-shopping-scraper";
 
-    private final OkHttpClient client = new OkHttpClient();
+    private final OkHttpClient client;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService pollScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "apify-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${apify.token}")
+    private String apifyToken;
+
+    @Value("${apify.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${apify.run-timeout-ms:60000}")
+    private long runTimeoutMs;
+
+    @Value("${apify.max-items:10}")
+    private int maxItems;
 
-    public List<PlatformPrice> fetchPricesFromApify(String productName) {
+    public ApifyService(OkHttpClient apifyHttpClient) {
+        this.client = apifyHttpClient;
+    }
+
+    /**
+     * Starts a Google Shopping actor run for the product and completes with its prices. The run
+     * is paid for once started, so it is only aborted when it exceeds run-timeout-ms, not when a
+     * caller stops waiting for it.
+     */
+    public CompletableFuture<List<PlatformPrice>> fetchPricesFromApifyAsync(String productName) {
         log.info("Fetching prices via Apify for: {}", productName);
+        if (apifyToken == null || apifyToken.isBlank()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
 
-        // 1. Prepare the Input JSON for the Actor
-        String jsonInput = String.format("{\"search\": \"%s\", \"gl\": \"in\", \"hl\": \"en\", \"maxItems\": 10}",
-                productName);
+        CompletableFuture<List<PlatformPrice>> result = new CompletableFuture<>();
+        long deadline = System.currentTimeMillis() + runTimeoutMs;
 
-        // 2. Start the Actor Run (synchronous wait for simplicity, ideally async)
-        // Using `run-sync-get-dataset-items` API to get results immediately
-        String url = "https://api.apify.com/v2/acts/" + GOOGLE_SHOPPING_ACTOR + "/run-sync-get-dataset-items";
+        startRun(productName).whenComplete((run, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            pollUntilFinished(run, deadline, result);
+        });
+        return result;
+    }
 
-        RequestBody body = RequestBody.create(jsonInput, MediaType.parse("application/json; charset=utf-8"));
-        Request request = new Request.Builder()
-                .url(url)
-                .header("Authorization", "Bearer " + apifyToken)
-                .post(body)
+    private CompletableFuture<JsonNode> startRun(String productName) {
+        String input;
+        try {
+            // Serialized through Jackson so quotes or backslashes in the name stay valid JSON
+            input = objectMapper.writeValueAsString(Map.of(
+                    "search", productName,
+                    "gl", "in",
+                    "hl", "en",
+                    "maxItems", maxItems));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        Request request = authorized(API_BASE + "/acts/" + GOOGLE_SHOPPING_ACTOR + "/runs")
+                .post(RequestBody.create(input, JSON))
                 .build();
+        return call(request).thenApply(this::readRunData);
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                log.error("Apify API failed: {}", response);
-                return Collections.emptyList();
+    private void pollUntilFinished(JsonNode run, long deadline, CompletableFuture<List<PlatformPrice>> result) {
+        if (result.isDone()) {
+            return;
+        }
+
+        String status = run.path("status").asText();
+        switch (status) {
+            case "SUCCEEDED" -> readDataset(run.path("defaultDatasetId").asText())
+                    .whenComplete((prices, error) -> {
+                        if (error != null) {
+                            result.completeExceptionally(error);
+                        } else {
+                            result.complete(prices);
+                        }
+                    });
+            case "FAILED", "ABORTED", "TIMED-OUT" ->
+                result.completeExceptionally(new IOException("Apify run " + run.path("id").asText() + " " + status));
+            default -> {
+                if (System.currentTimeMillis() > deadline) {
+                    abortRun(run.path("id").asText());
+                    result.completeExceptionally(new IOException("Apify run did not finish within " + runTimeoutMs + " ms"));
+                    return;
+                }
+                pollScheduler.schedule(() -> call(authorized(API_BASE + "/actor-runs/" + run.path("id").asText()).get().build())
+                        .thenApply(this::readRunData)
+                        .whenComplete((next, error) -> {
+                            if (error != null) {
+                                result.completeExceptionally(error);
+                            } else {
+                                pollUntilFinished(next, deadline, result);
+                            }
+                        }), pollIntervalMs, TimeUnit.MILLISECONDS);
             }
+        }
+    }
 
-            String responseBody = response.body().string();
-            return parseApifyResponse(responseBody);
+    private CompletableFuture<List<PlatformPrice>> readDataset(String datasetId) {
+        HttpUrl url = HttpUrl.parse(API_BASE + "/datasets/" + datasetId + "/items").newBuilder()
+                .addQueryParameter("format", "json")
+                .addQueryParameter("clean", "true")
+                .addQueryParameter("limit", String.valueOf(maxItems))
+                .build();
 
-        } catch (IOException e) {
-            log.error("Error calling Apify", e);
-            return Collections.emptyList();
-        }
+        CompletableFuture<List<PlatformPrice>> prices = new CompletableFuture<>();
+        client.newCall(authorized(url.toString()).get().build()).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                prices.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        prices.completeExceptionally(new IOException("Apify dataset read failed: " + response.code()));
+                        return;
+                    }
+                    prices.complete(parseDatasetItems(response.body().byteStream()));
+                } catch (Exception e) {
+                    prices.completeExceptionally(e);
+                }
+            }
+        });
+        return prices;
     }
 
-    private List<PlatformPrice> parseApifyResponse(String jsonResponse) {
+    /**
+     * Streams the dataset array, keeping only the fields we map and skipping everything else,
+     * so the full response is never held as a tree.
+     */
+    private List<PlatformPrice> parseDatasetItems(InputStream body) throws IOException {
         List<PlatformPrice> prices = new ArrayList<>();
-        try {
-            JsonNode root = objectMapper.readTree(jsonResponse);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return prices;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String merchant = "Unknown Store";
+                String priceStr = "0";
+                String merchantLink = "";
+                String productLink = "";
+                String url = "";
 
-            if (root.isArray()) {
-                for (JsonNode item : root) {
-                    // This parsing logic depends on the specific Actor's output schema
-                    // For 'epctex/google-shopping-scraper':
-                    String title = item.path("productName").asText();
-                    String merchant = item.path("merchantName").asText("Unknown Store");
-                    String priceStr = item.path("price").asText("0");
-                    String link = item.path("merchantLink").asText("");
-                    if (link.isEmpty())
-                        link = item.path("productLink").asText("");
-                    if (link.isEmpty())
-                        link = item.path("url").asText("");
-
-                    // Cleanup price string (e.g., "₹12,999" -> 12999)
-                    priceStr = priceStr.replaceAll("[^\\d.]", "");
-                    if (priceStr.isEmpty())
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (value.isStructStart()) {
+                        parser.skipChildren();
                         continue;
+                    }
+                    if (value == JsonToken.VALUE_NULL) {
+                        continue;
+                    }
+                    // This parsing logic depends on the specific Actor's output schema
+                    switch (field) {
+                        case "merchantName" -> merchant = parser.getText();
+                        case "price" -> priceStr = parser.getText();
+                        case "merchantLink" -> merchantLink = parser.getText();
+                        case "productLink" -> productLink = parser.getText();
+                        case "url" -> url = parser.getText();
+                        default -> {
+                        }
+                    }
+                }
 
-                    BigDecimal price = new BigDecimal(priceStr);
+                // Cleanup price string (e.g., "₹12,999" -> 12999)
+                priceStr = priceStr.replaceAll("[^\\d.]", "");
+                if (priceStr.isEmpty())
+                    continue;
 
+                String link = !merchantLink.isEmpty() ? merchantLink : !productLink.isEmpty() ? productLink : url;
+                try {
                     prices.add(PlatformPrice.builder()
                             .platformName(merchant)
                             .platformProductUrl(link)
-                            .price(price)
+                            .price(new BigDecimal(priceStr))
                             .currency("INR")
                             .available(true)
                             .fetchedAt(LocalDateTime.now())
                             .build());
+                } catch (NumberFormatException e) {
+                    log.debug("Skipping Apify item with unparseable price '{}'", priceStr);
                 }
             }
-        } catch (Exception e) {
-            log.error("Failed to parse Apify response", e);
         }
         return prices;
     }
+
+    private void abortRun(String runId) {
+        Request request = authorized(API_BASE + "/actor-runs/" + runId + "/abort")
+                .post(RequestBody.create(new byte[0], null))
+                .build();
+        call(request).whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.warn("Failed to abort Apify run {}: {}", runId, error.getMessage());
+            }
+        });
+    }
+
+    private JsonNode readRunData(String body) {
+        try {
+            return objectMapper.readTree(body).path("data");
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable Apify run response", e);
+        }
+    }
+
+    private Request.Builder authorized(String url) {
+        return new Request.Builder()
+                .url(url)
+                .header("Authorization", "Bearer " + apifyToken);
+    }
+
+    /**
+     * Enqueues a call on OkHttp's dispatcher and completes with the (small) response body.
+     */
+    private CompletableFuture<String> call(Request request) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        log.error("Apify API failed: {}", response);
+                        future.completeExceptionally(new IOException("Apify API returned " + response.code()));
+                        return;
+                    }
+                    future.complete(response.body().string());
+                } catch (IOException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pollScheduler.shutdownNow();
+    }
 }
@@ -0,0 +1,179 @@
+package com.gadgetmart.product.cache;
+
+import com.gadgetmart.product.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Two-tier product cache: a bounded in-process Caffeine map (L1) in front of Redis (L2).
+ * Writes go to both tiers and are broadcast on a Redis channel so other replicas drop their
+ * L1 copy; the short L1 TTL bounds staleness if an invalidation message is ever missed.
+ */
+@Component
+@Slf4j
+public class ProductCache {
+
+    public static final String INVALIDATION_CHANNEL = "product-cache-invalidation";
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private final RedisTemplate<String, Product> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<String, Product> localCache;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisErrors;
+    private final Counter remoteInvalidations;
+
+    public ProductCache(RedisTemplate<String, Product> redisTemplate, StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${product.cache.local.max-size:10000}") long localMaxSize,
+            @Value("${product.cache.local.ttl-seconds:30}") long localTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .recordStats()
+                .build();
+
+        // L1: cache.gets{result=hit|miss}, cache.evictions, cache.size, ... tagged cache=product-l1
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "product-l1");
+        // L2: same meter names, tagged cache=product-l2
+        this.redisHits = Counter.builder("cache.gets").tag("cache", "product-l2").tag("result", "hit")
+                .register(meterRegistry);
+        this.redisMisses = Counter.builder("cache.gets").tag("cache", "product-l2").tag("result", "miss")
+                .register(meterRegistry);
+        this.redisErrors = Counter.builder("cache.errors").tag("cache", "product-l2").register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("cache.invalidations").tag("cache", "product-l1")
+                .register(meterRegistry);
+    }
+
+    public Product get(String key) {
+        Product product = localCache.getIfPresent(key);
+        if (product != null) {
+            return product;
+        }
+
+        try {
+            product = redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("Redis error: {}", e.getMessage());
+            return null;
+        }
+
+        if (product == null) {
+            redisMisses.increment();
+            return null;
+        }
+        redisHits.increment();
+        localCache.put(key, product);
+        return product;
+    }
+
+    /**
+     * Looks up several keys with one MGET for whatever the local tier does not hold.
+     *
+     * @return the cached products keyed by cache key; missing keys are absent
+     */
+    public Map<String, Product> getAll(Collection<String> keys) {
+        Map<String, Product> found = new HashMap<>(localCache.getAllPresent(keys));
+        List<String> remote = keys.stream().filter(key -> !found.containsKey(key)).distinct().toList();
+        if (remote.isEmpty()) {
+            return found;
+        }
+
+        List<Product> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(remote);
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("Redis error: {}", e.getMessage());
+            return found;
+        }
+        if (values == null) {
+            return found;
+        }
+
+        for (int i = 0; i < remote.size(); i++) {
+            Product product = values.get(i);
+            if (product == null) {
+                redisMisses.increment();
+                continue;
+            }
+            redisHits.increment();
+            localCache.put(remote.get(i), product);
+            found.put(remote.get(i), product);
+        }
+        return found;
+    }
+
+    public void put(String key, Product product, Duration ttl) {
+        localCache.put(key, product);
+        try {
+            redisTemplate.opsForValue().set(key, product, ttl);
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + MESSAGE_SEPARATOR + key);
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("Failed to cache in Redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes several products in one pipelined round trip, with one invalidation per key.
+     */
+    public void putAll(Map<String, Product> products, Duration ttl) {
+        localCache.putAll(products);
+        try {
+            RedisSerializer<String> keySerializer = stringRedisTemplate.getStringSerializer();
+            @SuppressWarnings("unchecked")
+            RedisSerializer<Product> valueSerializer = (RedisSerializer<Product>) redisTemplate.getValueSerializer();
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                products.forEach((key, product) -> {
+                    connection.stringCommands().set(keySerializer.serialize(key), valueSerializer.serialize(product),
+                            Expiration.from(ttl), RedisStringCommands.SetOption.upsert());
+                    connection.publish(keySerializer.serialize(INVALIDATION_CHANNEL),
+                            keySerializer.serialize(instanceId + MESSAGE_SEPARATOR + key));
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("Failed to cache in Redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Called for every message on the invalidation channel; our own broadcasts are ignored
+     * since the local tier already holds the value we just wrote.
+     */
+    void onInvalidation(String message) {
+        int separator = message.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || message.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        localCache.invalidate(message.substring(separator + 1));
+        remoteInvalidations.increment();
+    }
+}
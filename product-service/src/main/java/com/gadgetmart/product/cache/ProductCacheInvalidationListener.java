@@ -0,0 +1,57 @@
+package com.gadgetmart.product.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes to the product cache invalidation channel. The subscription is (re)established
+ * on a timer rather than at context start, so product-service still boots and serves from
+ * Mongo when Redis is unavailable.
+ */
+@Component
+@Slf4j
+public class ProductCacheInvalidationListener implements MessageListener {
+
+    private final ProductCache productCache;
+    private final RedisMessageListenerContainer container;
+
+    public ProductCacheInvalidationListener(ProductCache productCache, RedisConnectionFactory connectionFactory) {
+        this.productCache = productCache;
+        this.container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(ProductCache.INVALIDATION_CHANNEL));
+        container.afterPropertiesSet();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        productCache.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Scheduled(fixedDelayString = "${product.cache.subscribe-retry-ms:30000}")
+    public void ensureSubscribed() {
+        if (container.isRunning()) {
+            return;
+        }
+        try {
+            container.start();
+            log.info("Subscribed to {}", ProductCache.INVALIDATION_CHANNEL);
+        } catch (Exception e) {
+            log.warn("Product cache invalidation subscription unavailable: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws Exception {
+        container.destroy();
+    }
+}
@@ -0,0 +1,115 @@
+package com.gadgetmart.product.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gadgetmart.product.model.Product;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Redis value format for cached products: a three-byte header (magic, format version, flags)
+ * followed by the product as Smile, Jackson's binary JSON. Smile back-references repeated field
+ * names, so a long price list costs each PlatformPrice key once, and no class names are written.
+ * Bodies above the compression threshold are gzipped and flagged as such.
+ * <p>
+ * Values written by the previous serializer (JSON with embedded type ids) are still read, so
+ * entries cached before a deploy keep serving until they are rewritten or expire.
+ */
+public class ProductCodec implements RedisSerializer<Product> {
+
+    static final byte MAGIC = (byte) 0xB7;
+    static final byte VERSION_1 = 1;
+    static final int HEADER_LENGTH = 3;
+    private static final byte FLAG_GZIP = 1;
+
+    private final ObjectMapper smileMapper;
+    private final GenericJackson2JsonRedisSerializer legacySerializer;
+    private final int compressThresholdBytes;
+
+    public ProductCodec(int compressThresholdBytes) {
+        this.compressThresholdBytes = compressThresholdBytes;
+        this.smileMapper = SmileMapper.builder()
+                .addModule(new JavaTimeModule())
+                // Older replicas may read entries written with fields they do not know yet
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+
+        ObjectMapper legacyMapper = new ObjectMapper();
+        legacyMapper.registerModule(new JavaTimeModule());
+        legacyMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY);
+        legacyMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.legacySerializer = new GenericJackson2JsonRedisSerializer(legacyMapper);
+    }
+
+    @Override
+    public byte[] serialize(Product product) {
+        if (product == null) {
+            return null;
+        }
+        try {
+            byte[] body = smileMapper.writeValueAsBytes(product);
+            byte flags = 0;
+            if (body.length > compressThresholdBytes) {
+                body = gzip(body);
+                flags |= FLAG_GZIP;
+            }
+
+            byte[] value = new byte[HEADER_LENGTH + body.length];
+            value[0] = MAGIC;
+            value[1] = VERSION_1;
+            value[2] = flags;
+            System.arraycopy(body, 0, value, HEADER_LENGTH, body.length);
+            return value;
+        } catch (IOException e) {
+            throw new SerializationException("Could not encode product " + product.getName(), e);
+        }
+    }
+
+    @Override
+    public Product deserialize(byte[] value) {
+        if (value == null || value.length == 0) {
+            return null;
+        }
+        if (value[0] != MAGIC) {
+            return (Product) legacySerializer.deserialize(value);
+        }
+        if (value.length < HEADER_LENGTH || value[1] != VERSION_1) {
+            // Written by a newer release; treat as a miss rather than misread it
+            return null;
+        }
+
+        try {
+            if ((value[2] & FLAG_GZIP) != 0) {
+                try (InputStream in = new GZIPInputStream(
+                        new ByteArrayInputStream(value, HEADER_LENGTH, value.length - HEADER_LENGTH))) {
+                    return smileMapper.readValue(in, Product.class);
+                }
+            }
+            return smileMapper.readValue(Arrays.copyOfRange(value, HEADER_LENGTH, value.length), Product.class);
+        } catch (IOException e) {
+            throw new SerializationException("Could not decode cached product", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,67 @@
+package com.gadgetmart.product.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Redis-backed lease so only one product-service replica refreshes a given product at a time.
+ * The lease expires on its own if the holder dies, and is only released by the token that took it.
+ */
+@Component
+@Slf4j
+public class RefreshLease {
+
+    private static final String LEASE_PREFIX = "lease:";
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration leaseDuration;
+
+    public RefreshLease(StringRedisTemplate stringRedisTemplate,
+            @Value("${product.refresh.lease-ms:15000}") long leaseMs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.leaseDuration = Duration.ofMillis(leaseMs);
+    }
+
+    /**
+     * @return the lease token when acquired, empty when another replica holds it.
+     *         If Redis is unreachable the lease is granted so callers fall back to in-process coalescing only.
+     */
+    public Optional<String> tryAcquire(String key) {
+        return tryAcquire(key, leaseDuration);
+    }
+
+    public Optional<String> tryAcquire(String key, Duration duration) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(LEASE_PREFIX + key, token, duration);
+            return Boolean.TRUE.equals(acquired) ? Optional.of(token) : Optional.empty();
+        } catch (Exception e) {
+            log.warn("Redis lease unavailable for {}: {}", key, e.getMessage());
+            return Optional.of(token);
+        }
+    }
+
+    public void release(String key, String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(LEASE_PREFIX + key), token);
+        } catch (Exception e) {
+            log.warn("Failed to release Redis lease for {}: {}", key, e.getMessage());
+        }
+    }
+
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+}
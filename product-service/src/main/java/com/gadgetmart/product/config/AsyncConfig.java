@@ -0,0 +1,65 @@
+package com.gadgetmart.product.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Pool used to scatter connector calls. Fixed size with a bounded queue so a burst of
+     * cache misses queues up instead of spawning unbounded threads; overflow is rejected
+     * and treated as a missed platform by PriceAggregator.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor priceFetchExecutor(PriceFetchProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("price-fetch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool for stale-while-revalidate refreshes. Deliberately small: these run off the request
+     * path and a full queue just means the refresh is retried on a later request.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor priceRefreshExecutor(
+            @Value("${product.refresh.background-threads:4}") int threads,
+            @Value("${product.refresh.background-queue:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("price-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded worker pool for the scheduled refresher. Caller-runs gives the scheduling loop
+     * back-pressure when every worker is busy.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor priceSchedulerExecutor(
+            @Value("${product.refresh.scheduler.threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setThreadNamePrefix("price-scheduler-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,86 +1,181 @@
 package com.gadgetmart.product.config;
 
+import com.gadgetmart.product.model.PriceSummary;
 import com.gadgetmart.product.model.Product;
 import com.gadgetmart.product.model.Product.PlatformPrice;
 import com.gadgetmart.product.repository.ProductRepository;
+import com.gadgetmart.product.service.UnsplashService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Seeds the catalog in the background after startup, so boot time does not depend on the size
+ * of the seed list. Seeding is an upsert by product name that only inserts missing products:
+ * live prices of existing products are never touched and re-running it is a no-op.
+ * <p>
+ * Unsplash is only asked for images of curated products that are not stored yet, several at a
+ * time, and every image found is kept in a local file so later runs do not ask again.
+ * product.seed.synthetic-products adds a large generated catalog for load tests.
+ */
 @Configuration
 @RequiredArgsConstructor
 @Slf4j
 public class DataSeeder implements CommandLineRunner {
 
+        // Duplicate key: another replica inserted the same product first
+        private static final int DUPLICATE_KEY = 11000;
+
+        public enum Mode {
+                OFF, UPSERT, RESET // RESET deletes every product first, as seeding used to
+        }
+
+        private static final Object[][] CURATED_PRODUCTS = {
+                        // Smartphones
+                        { "iPhone 16 Pro Max", "Apple", "Smartphones",
+                                        "Titanium Black, 256GB, 6.9-inch Display" },
+                        { "Samsung Galaxy S25 Ultra", "Samsung", "Smartphones",
+                                        "Titanium Gray, 512GB, Snapdragon 8 Gen 4" },
+                        { "Google Pixel 9 Pro XL", "Google", "Smartphones",
+                                        "Obsidian, 128GB, Gemini AI Integrated" },
+                        { "Nothing Phone (3)", "Nothing", "Smartphones",
+                                        "Transparent Black, Glyph Interface 3.0" },
+
+                        // Laptops
+                        { "MacBook Pro M4 Max", "Apple", "Laptops",
+                                        "Space Black, 32GB RAM, 1TB SSD, 16-inch Liquid Retina" },
+                        { "Dell XPS 16 (2025)", "Dell", "Laptops",
+                                        "Platinum Silver, OLED Touch Display, RTX 5060" },
+                        { "ASUS ROG Zephyrus G16", "ASUS", "Laptops",
+                                        "Eclipse Gray, 240Hz Nebula Display, 32GB RAM" },
+                        { "Microsoft Surface Pro 11", "Microsoft", "Laptops",
+                                        "Sapphire Blue, Copilot+ PC, OLED Keyboard" },
+
+                        // Audio
+                        { "Sony WH-1000XM6", "Sony", "Audio",
+                                        "Industry-leading Noise Canceling, 40hr Battery" },
+                        { "AirPods Max 2", "Apple", "Audio", "Spatial Audio, USB-C Charging, Midnight Black" },
+                        { "Nothing Ear (3)", "Nothing", "Audio", "Transparent ID, Hi-Res Wireless Audio" },
+
+                        // Gaming
+                        { "PlayStation 5 Pro", "Sony", "Gaming",
+                                        "8K Resolution, 2TB Storage, Advanced Ray Tracing" },
+                        { "Xbox Series X Elite", "Microsoft", "Gaming", "1TB SSD, 4K Gaming, Carbon Black" },
+                        { "Nintendo Switch 2", "Nintendo", "Gaming",
+                                        "OLED Display, 4K Docking, backward compatibility" },
+
+                        // Cameras
+                        { "Sony A9 III", "Sony", "Cameras", "Global Shutter, 120fps Burst, Full-frame Sensor" },
+                        { "DJI Mavic 4 Pro", "DJI", "Cameras", "Dual Hasselblad Cameras, 45min Flight Time" }
+        };
+
         private final ProductRepository productRepository;
-        private final com.gadgetmart.product.service.UnsplashService unsplashService;
+        private final MongoTemplate mongoTemplate;
+        private final UnsplashService unsplashService;
+
+        @Value("${product.seed.mode:upsert}")
+        private Mode mode;
+
+        @Value("${product.seed.image-concurrency:4}")
+        private int imageConcurrency;
+
+        @Value("${product.seed.image-cache-file:data/seed-images.properties}")
+        private String imageCacheFile;
+
+        @Value("${product.seed.synthetic-products:0}")
+        private int syntheticProducts;
+
+        @Value("${product.seed.batch-size:1000}")
+        private int batchSize;
 
         @Override
-        public void run(String... args) throws Exception {
-                // Clear existing to refresh with accurate images
-                log.info("🗑️ Deleting all existing products from MongoDB...");
-                productRepository.deleteAll();
-
-                log.info("🚀 Seeding product catalog with accurate gadget data from Unsplash API...");
-
-                Object[][] productData = {
-                                // Smartphones
-                                { "iPhone 16 Pro Max", "Apple", "Smartphones",
-                                                "Titanium Black, 256GB, 6.9-inch Display" },
-                                { "Samsung Galaxy S25 Ultra", "Samsung", "Smartphones",
-                                                "Titanium Gray, 512GB, Snapdragon 8 Gen 4" },
-                                { "Google Pixel 9 Pro XL", "Google", "Smartphones",
-                                                "Obsidian, 128GB, Gemini AI Integrated" },
-                                { "Nothing Phone (3)", "Nothing", "Smartphones",
-                                                "Transparent Black, Glyph Interface 3.0" },
-
-                                // Laptops
-                                { "MacBook Pro M4 Max", "Apple", "Laptops",
-                                                "Space Black, 32GB RAM, 1TB SSD, 16-inch Liquid Retina" },
-                                { "Dell XPS 16 (2025)", "Dell", "Laptops",
-                                                "Platinum Silver, OLED Touch Display, RTX 5060" },
-                                { "ASUS ROG Zephyrus G16", "ASUS", "Laptops",
-                                                "Eclipse Gray, 240Hz Nebula Display, 32GB RAM" },
-                                { "Microsoft Surface Pro 11", "Microsoft", "Laptops",
-                                                "Sapphire Blue, Copilot+ PC, OLED Keyboard" },
-
-                                // Audio
-                                { "Sony WH-1000XM6", "Sony", "Audio",
-                                                "Industry-leading Noise Canceling, 40hr Battery" },
-                                { "AirPods Max 2", "Apple", "Audio", "Spatial Audio, USB-C Charging, Midnight Black" },
-                                { "Nothing Ear (3)", "Nothing", "Audio", "Transparent ID, Hi-Res Wireless Audio" },
-
-                                // Gaming
-                                { "PlayStation 5 Pro", "Sony", "Gaming",
-                                                "8K Resolution, 2TB Storage, Advanced Ray Tracing" },
-                                { "Xbox Series X Elite", "Microsoft", "Gaming", "1TB SSD, 4K Gaming, Carbon Black" },
-                                { "Nintendo Switch 2", "Nintendo", "Gaming",
-                                                "OLED Display, 4K Docking, backward compatibility" },
-
-                                // Cameras
-                                { "Sony A9 III", "Sony", "Cameras", "Global Shutter, 120fps Burst, Full-frame Sensor" },
-                                { "DJI Mavic 4 Pro", "DJI", "Cameras", "Dual Hasselblad Cameras, 45min Flight Time" }
-                };
+        public void run(String... args) {
+                if (mode == Mode.OFF) {
+                        return;
+                }
+                Thread seeder = new Thread(() -> {
+                        try {
+                                seed();
+                        } catch (Exception e) {
+                                log.error("❌ Product seeding failed: {}", e.getMessage());
+                        }
+                }, "data-seeder");
+                seeder.setDaemon(true);
+                seeder.start();
+        }
+
+        private void seed() {
+                long startedAt = System.currentTimeMillis();
+                if (mode == Mode.RESET) {
+                        log.info("🗑️ Deleting all existing products from MongoDB...");
+                        productRepository.deleteAll();
+                }
+
+                ensureUniqueNames();
+                log.info("🚀 Seeding product catalog ({} mode)...", mode);
+                int inserted = upsertAll(curatedProducts()) + upsertAll(genericProducts());
+
+                for (int from = 0; from < syntheticProducts; from += batchSize) {
+                        inserted += upsertAll(syntheticProducts(from, Math.min(from + batchSize, syntheticProducts)));
+                }
+
+                log.info("✅ Seeding finished: {} new products in {} ms", inserted,
+                                System.currentTimeMillis() - startedAt);
+        }
+
+        /**
+         * Curated products not stored yet, with their images looked up concurrently.
+         */
+        private List<Product> curatedProducts() {
+                List<String> names = new ArrayList<>();
+                for (Object[] data : CURATED_PRODUCTS) {
+                        names.add((String) data[0]);
+                }
+                Set<String> existing = existingNames(names);
+                Map<String, String> images = findImages(names.stream().filter(name -> !existing.contains(name)).toList());
 
                 Random random = new Random();
                 List<Product> products = new ArrayList<>();
 
-                for (Object[] data : productData) {
+                for (Object[] data : CURATED_PRODUCTS) {
                         String name = (String) data[0];
+                        if (existing.contains(name)) {
+                                continue;
+                        }
                         String brand = (String) data[1];
                         String category = (String) data[2];
                         String specs = (String) data[3];
 
-                        log.info("Fetching exact image for: {}", name);
-                        String imageUrl = unsplashService.getExactProductImage(name);
-
                         BigDecimal basePrice = BigDecimal.valueOf(10000 + random.nextInt(150000));
 
                         List<PlatformPrice> prices = new ArrayList<>();
@@ -99,51 +194,185 @@ public class DataSeeder implements CommandLineRunner {
                         prices.add(createPrice("GadgetMart",
                                         basePrice.subtract(BigDecimal.valueOf(random.nextInt(3000) + 1000)), name));
 
-                        Product product = Product.builder()
+                        products.add(Product.builder()
                                         .name(name)
                                         .brand(brand)
                                         .category(category)
                                         .description(specs
                                                         + ". High-performance tech aggregated at best market prices.")
-                                        .imageUrl(imageUrl)
+                                        .imageUrl(images.getOrDefault(name, UnsplashService.FALLBACK_IMAGE))
                                         .prices(prices)
                                         .lastUpdated(LocalDateTime.now())
-                                        .build();
-
-                        products.add(product);
+                                        .build());
                 }
+                return products;
+        }
 
-                // Add 40+ more generic items to reach 60+ but with category logic
+        // 45 generic items to fill out the categories
+        private List<Product> genericProducts() {
+                Random random = new Random();
+                List<Product> products = new ArrayList<>();
                 for (int i = 0; i < 45; i++) {
                         String cat = categories[i % categories.length];
                         String b = brands[i % brands.length];
                         String name = b + " " + cat + " Pro " + (i + 1);
+                        products.add(genericProduct(name, b, cat, i, random));
+                }
+                return products;
+        }
 
-                        products.add(Product.builder()
-                                        .name(name)
-                                        .brand(b)
-                                        .category(cat)
-                                        .description("Advanced " + cat + " with premium build and latest specs.")
-                                        .imageUrl(getGenericImage(cat, i))
-                                        .prices(List.of(
-                                                        createPrice("Amazon",
-                                                                        BigDecimal.valueOf(
-                                                                                        6000 + random.nextInt(45000)),
-                                                                        name),
-                                                        createPrice("Flipkart",
-                                                                        BigDecimal.valueOf(
-                                                                                        5800 + random.nextInt(46000)),
-                                                                        name),
-                                                        createPrice("GadgetMart",
-                                                                        BigDecimal.valueOf(
-                                                                                        5000 + random.nextInt(40000)),
-                                                                        name)))
-                                        .lastUpdated(LocalDateTime.now())
-                                        .build());
+        /**
+         * Generated products [from, to) for load tests; deterministic per index, so reruns upsert
+         * the same names.
+         */
+        private List<Product> syntheticProducts(int from, int to) {
+                List<Product> products = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                        String cat = categories[i % categories.length];
+                        String b = brands[(i / categories.length) % brands.length];
+                        products.add(genericProduct(b + " " + cat + " Synthetic " + (i + 1), b, cat, i, new Random(i)));
+                }
+                return products;
+        }
+
+        private Product genericProduct(String name, String brand, String category, int index, Random random) {
+                return Product.builder()
+                                .name(name)
+                                .brand(brand)
+                                .category(category)
+                                .description("Advanced " + category + " with premium build and latest specs.")
+                                .imageUrl(getGenericImage(category, index))
+                                .prices(List.of(
+                                                createPrice("Amazon",
+                                                                BigDecimal.valueOf(6000 + random.nextInt(45000)), name),
+                                                createPrice("Flipkart",
+                                                                BigDecimal.valueOf(5800 + random.nextInt(46000)), name),
+                                                createPrice("GadgetMart",
+                                                                BigDecimal.valueOf(5000 + random.nextInt(40000)), name)))
+                                .lastUpdated(LocalDateTime.now())
+                                .build();
+        }
+
+        private Set<String> existingNames(List<String> names) {
+                Query query = new Query(Criteria.where("name").in(names));
+                query.fields().include("name");
+                Set<String> existing = new HashSet<>();
+                mongoTemplate.find(query, Product.class).forEach(product -> existing.add(product.getName()));
+                return existing;
+        }
+
+        /**
+         * The upsert below is only race-free across replicas with a unique index on name: without
+         * one, two replicas seeding at once can both insert the same product.
+         */
+        private void ensureUniqueNames() {
+                try {
+                        mongoTemplate.indexOps(Product.class)
+                                        .ensureIndex(new Index("name", Sort.Direction.ASC).unique().named("name_unique"));
+                } catch (Exception e) {
+                        // Typically existing duplicate names; seeding still works, just not race-free
+                        log.warn("⚠️ Could not create the unique index on product name: {}", e.getMessage());
+                }
+        }
+
+        /**
+         * Inserts the products whose name is not stored yet, in one unordered bulk write. Every
+         * field is $setOnInsert, so an existing product (and its live prices) is left as it is
+         * even if another replica is seeding at the same time; the insert that loses that race
+         * fails on the unique name index and is counted as a no-op.
+         *
+         * @return how many products were inserted
+         */
+        private int upsertAll(List<Product> products) {
+                if (products.isEmpty()) {
+                        return 0;
+                }
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+                for (Product product : products) {
+                        // Bulk upserts bypass the save callbacks, so the summary is computed here
+                        product.setPriceSummary(PriceSummary.of(product.getPrices()));
+                        Document document = new Document();
+                        mongoTemplate.getConverter().write(product, document);
+                        document.remove("_id");
+
+                        Update update = new Update();
+                        document.forEach(update::setOnInsert);
+                        bulk.upsert(Query.query(Criteria.where("name").is(product.getName())), update);
+                }
+                try {
+                        return bulk.execute().getUpserts().size();
+                } catch (BulkOperationException e) {
+                        if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                                throw e;
+                        }
+                        return e.getResult().getUpserts().size();
+                }
+        }
+
+        /**
+         * Image URLs for the given products: from the local cache file where present, otherwise
+         * from Unsplash with at most image-concurrency requests in flight.
+         */
+        private Map<String, String> findImages(List<String> names) {
+                Map<String, String> images = new ConcurrentHashMap<>();
+                Properties cache = loadImageCache();
+                List<String> toFetch = new ArrayList<>();
+                for (String name : names) {
+                        String cached = cache.getProperty(name);
+                        if (cached != null) {
+                                images.put(name, cached);
+                        } else {
+                                toFetch.add(name);
+                        }
+                }
+                if (toFetch.isEmpty()) {
+                        return images;
                 }
 
-                productRepository.saveAll(products);
-                log.info("✅ Successfully seeded {} categorized and accurate products.", products.size());
+                log.info("Fetching {} product images from Unsplash ({} at a time)", toFetch.size(), imageConcurrency);
+                ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, imageConcurrency));
+                try {
+                        CompletableFuture.allOf(toFetch.stream()
+                                        .map(name -> CompletableFuture.runAsync(() -> unsplashService
+                                                        .findExactProductImage(name)
+                                                        .ifPresent(url -> images.put(name, url)), pool))
+                                        .toArray(CompletableFuture[]::new))
+                                        .join();
+                } finally {
+                        pool.shutdown();
+                }
+
+                // Placeholders are not cached, so a later run retries them
+                toFetch.stream().filter(images::containsKey).forEach(name -> cache.setProperty(name, images.get(name)));
+                saveImageCache(cache);
+                return images;
+        }
+
+        private Properties loadImageCache() {
+                Properties cache = new Properties();
+                Path path = Path.of(imageCacheFile);
+                if (Files.exists(path)) {
+                        try (Reader reader = Files.newBufferedReader(path)) {
+                                cache.load(reader);
+                        } catch (IOException e) {
+                                log.warn("Could not read image cache {}: {}", path, e.getMessage());
+                        }
+                }
+                return cache;
+        }
+
+        private void saveImageCache(Properties cache) {
+                Path path = Path.of(imageCacheFile);
+                try {
+                        if (path.getParent() != null) {
+                                Files.createDirectories(path.getParent());
+                        }
+                        try (Writer writer = Files.newBufferedWriter(path)) {
+                                cache.store(writer, "Seed product image URLs");
+                        }
+                } catch (IOException e) {
+                        log.warn("Could not write image cache {}: {}", path, e.getMessage());
+                }
         }
 
         private String getGenericImage(String category, int index) {
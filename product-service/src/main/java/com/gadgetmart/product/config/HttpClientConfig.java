@@ -0,0 +1,38 @@
+package com.gadgetmart.product.config;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * Shared client for Apify. Calls are short (start run, poll status, read dataset), so a
+     * warm keep-alive pool to api.apify.com matters more than long read timeouts.
+     */
+    @Bean
+    public OkHttpClient apifyHttpClient(
+            @Value("${apify.http.max-idle-connections:32}") int maxIdleConnections,
+            @Value("${apify.http.max-requests:256}") int maxRequests,
+            @Value("${apify.http.max-requests-per-host:128}") int maxRequestsPerHost) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxIdleConnections, 5, TimeUnit.MINUTES))
+                .connectTimeout(Duration.ofSeconds(3))
+                .readTimeout(Duration.ofSeconds(15))
+                .callTimeout(Duration.ofSeconds(20))
+                .retryOnConnectionFailure(true)
+                .build();
+    }
+}
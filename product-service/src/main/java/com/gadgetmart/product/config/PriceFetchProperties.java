@@ -0,0 +1,45 @@
+package com.gadgetmart.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tuning for the parallel price fan-out.
+ * Per-platform deadlines are keyed by platform slug, e.g. "apify", "amazon-mock", "swiggy-instamart".
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "price.fetch")
+public class PriceFetchProperties {
+
+    // Deadline for any platform without its own entry in platformTimeoutsMs
+    private long defaultTimeoutMs = 2000;
+
+    private Map<String, Long> platformTimeoutsMs = new HashMap<>();
+
+    // Adaptive timeouts: observed latency percentile x multiplier, clamped to [minTimeoutMs, platform deadline]
+    private double adaptiveTimeoutPercentile = 0.99;
+
+    private double adaptiveTimeoutMultiplier = 1.5;
+
+    private long minTimeoutMs = 200;
+
+    // Partial results (some platform missed its deadline) are only trusted for this long
+    private long partialTtlMinutes = 5;
+
+    private int poolSize = 64;
+
+    private int queueCapacity = 512;
+
+    public long timeoutFor(String platformName) {
+        return platformTimeoutsMs.getOrDefault(slug(platformName), defaultTimeoutMs);
+    }
+
+    public static String slug(String platformName) {
+        return platformName.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("(^-|-$)", "");
+    }
+}
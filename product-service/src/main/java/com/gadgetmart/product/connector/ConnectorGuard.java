@@ -0,0 +1,111 @@
+package com.gadgetmart.product.connector;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resilience state for one price connector: its circuit breaker, its bulkhead and a window
+ * of recent latencies from which the call timeout is derived. Failures and timeouts enter the
+ * window at the full deadline.
+ */
+public class ConnectorGuard {
+
+    private static final int LATENCY_WINDOW = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final String platform;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final long maxTimeoutMs;
+    private final long minTimeoutMs;
+    private final double percentile;
+    private final double multiplier;
+
+    private final long[] latenciesNanos = new long[LATENCY_WINDOW];
+    private int samples;
+    private int next;
+    private volatile long adaptiveTimeoutMs;
+
+    ConnectorGuard(String platform, CircuitBreaker circuitBreaker, Bulkhead bulkhead, long maxTimeoutMs,
+            long minTimeoutMs, double percentile, double multiplier) {
+        this.platform = platform;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.maxTimeoutMs = maxTimeoutMs;
+        this.minTimeoutMs = Math.min(minTimeoutMs, maxTimeoutMs);
+        this.percentile = percentile;
+        this.multiplier = multiplier;
+        this.adaptiveTimeoutMs = maxTimeoutMs;
+    }
+
+    public String getPlatform() {
+        return platform;
+    }
+
+    /**
+     * Takes a circuit breaker permit and a bulkhead slot. Either both are taken or neither is.
+     */
+    public boolean tryAcquire() {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return false;
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gives back a permit that was acquired but never used for a call.
+     */
+    public void abandon() {
+        circuitBreaker.releasePermission();
+        bulkhead.onComplete();
+    }
+
+    public void onSuccess(long elapsedNanos) {
+        circuitBreaker.onSuccess(elapsedNanos, TimeUnit.NANOSECONDS);
+        recordLatency(elapsedNanos);
+    }
+
+    public void onError(long elapsedNanos, Throwable error) {
+        circuitBreaker.onError(elapsedNanos, TimeUnit.NANOSECONDS, error);
+        // A failed call is counted as taking the full deadline. Recording only successes would
+        // let a fast stretch pull the timeout down for good, since slower calls would then be cut
+        // off before they could be sampled.
+        recordLatency(Math.max(elapsedNanos, TimeUnit.MILLISECONDS.toNanos(maxTimeoutMs)));
+    }
+
+    /**
+     * Releases the bulkhead slot; called when the connector call has actually stopped running.
+     */
+    public void release() {
+        bulkhead.onComplete();
+    }
+
+    /**
+     * The observed latency percentile times a safety multiplier, clamped between the configured
+     * floor and the platform's configured deadline. Until enough samples exist the deadline is used.
+     */
+    public long timeoutMs() {
+        return adaptiveTimeoutMs;
+    }
+
+    private synchronized void recordLatency(long elapsedNanos) {
+        latenciesNanos[next] = elapsedNanos;
+        next = (next + 1) % LATENCY_WINDOW;
+        samples++;
+        if (samples >= MIN_SAMPLES && samples % RECOMPUTE_EVERY == 0) {
+            int size = Math.min(samples, LATENCY_WINDOW);
+            long[] sorted = Arrays.copyOf(latenciesNanos, size);
+            Arrays.sort(sorted);
+            long observedMs = TimeUnit.NANOSECONDS.toMillis(sorted[(int) Math.ceil(percentile * size) - 1]);
+            adaptiveTimeoutMs = Math.max(minTimeoutMs, Math.min(maxTimeoutMs, (long) (observedMs * multiplier)));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.gadgetmart.product.connector;
+
+import com.gadgetmart.product.config.PriceFetchProperties;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link ConnectorGuard} per platform, keyed by platform slug. Breakers and bulkheads come
+ * from the resilience4j registries, so their state is visible on /actuator/circuitbreakers and
+ * /actuator/bulkheads and can be tuned per slug under resilience4j.*.instances.
+ */
+@Component
+public class ConnectorGuards {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final PriceFetchProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, ConnectorGuard> guards = new ConcurrentHashMap<>();
+
+    public ConnectorGuards(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+            PriceFetchProperties properties, MeterRegistry meterRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ConnectorGuard forPlatform(String platformName) {
+        return guards.computeIfAbsent(PriceFetchProperties.slug(platformName), slug -> {
+            ConnectorGuard guard = new ConnectorGuard(platformName,
+                    circuitBreakerRegistry.circuitBreaker(slug),
+                    bulkheadRegistry.bulkhead(slug),
+                    properties.timeoutFor(platformName),
+                    properties.getMinTimeoutMs(),
+                    properties.getAdaptiveTimeoutPercentile(),
+                    properties.getAdaptiveTimeoutMultiplier());
+            Gauge.builder("price.connector.timeout", guard, ConnectorGuard::timeoutMs)
+                    .tag("platform", slug)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            return guard;
+        });
+    }
+}
@@ -1,6 +1,10 @@
 package com.gadgetmart.product.connector;
 
 import com.gadgetmart.product.model.Product.PlatformPrice;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -23,4 +27,20 @@ public interface PriceFetcher {
      * @return PlatformPrice object containing price, URL, availability.
      */
     Optional<PlatformPrice> fetchPrice(String productName);
+
+    /**
+     * Fetches prices for several products in one go. The default falls back to one
+     * {@link #fetchPrice} call per name; connectors whose upstream accepts multi-item
+     * queries override this to make a single request.
+     *
+     * @param productNames Names of the products to search.
+     * @return Prices keyed by the requested name; names with no price are absent.
+     */
+    default Map<String, PlatformPrice> fetchPrices(Collection<String> productNames) {
+        Map<String, PlatformPrice> prices = new LinkedHashMap<>();
+        for (String productName : productNames) {
+            fetchPrice(productName).ifPresent(price -> prices.put(productName, price));
+        }
+        return prices;
+    }
 }
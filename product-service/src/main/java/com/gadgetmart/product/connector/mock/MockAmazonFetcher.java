@@ -16,8 +16,6 @@ import java.util.Random;
 @Component
 public class MockAmazonFetcher implements PriceFetcher {
 
-    private final Random random = new Random();
-
     @Override
     public String getPlatformName() {
         return "Amazon (Mock)";
@@ -30,7 +28,7 @@ public class MockAmazonFetcher implements PriceFetcher {
         
         // Generate a pseudo-random price between 10,000 and 60,000 based on product name hash
         long seed = productName.hashCode();
-        random.setSeed(seed);
+        Random random = new Random(seed);
         
         int basePrice = 10000 + random.nextInt(50000);
         BigDecimal price = BigDecimal.valueOf(basePrice);
@@ -12,8 +12,6 @@ import java.util.Random;
 @Component
 public class MockFlipkartFetcher implements PriceFetcher {
     
-    private final Random random = new Random();
-
     @Override
     public String getPlatformName() {
         return "Flipkart";
@@ -23,7 +21,7 @@ public class MockFlipkartFetcher implements PriceFetcher {
     public Optional<Product.PlatformPrice> fetchPrice(String productName) {
         // Similar to Amazon, generate a competing price
         long seed = productName.hashCode() + 123456789; // Different seed
-        random.setSeed(seed);
+        Random random = new Random(seed);
         
         int basePrice = 9000 + random.nextInt(52000); // Slightly cheaper/more expensive
         BigDecimal price = BigDecimal.valueOf(basePrice);
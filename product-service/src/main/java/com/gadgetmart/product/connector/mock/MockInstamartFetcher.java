@@ -12,8 +12,6 @@ import java.util.Random;
 @Component
 public class MockInstamartFetcher implements PriceFetcher {
 
-    private final Random random = new Random();
-
     @Override
     public String getPlatformName() {
         return "Swiggy Instamart";
@@ -22,7 +20,7 @@ public class MockInstamartFetcher implements PriceFetcher {
     @Override
     public Optional<Product.PlatformPrice> fetchPrice(String productName) {
         long seed = productName.hashCode() + 111111111;
-        random.setSeed(seed);
+        Random random = new Random(seed);
 
         int basePrice = 10500 + random.nextInt(49000);
         BigDecimal price = BigDecimal.valueOf(basePrice);
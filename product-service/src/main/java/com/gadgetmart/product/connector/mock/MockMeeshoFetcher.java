@@ -12,8 +12,6 @@ import java.util.Random;
 @Component
 public class MockMeeshoFetcher implements PriceFetcher {
 
-    private final Random random = new Random();
-
     @Override
     public String getPlatformName() {
         return "Meesho";
@@ -22,7 +20,7 @@ public class MockMeeshoFetcher implements PriceFetcher {
     @Override
     public Optional<Product.PlatformPrice> fetchPrice(String productName) {
         long seed = productName.hashCode() + 555555555;
-        random.setSeed(seed);
+        Random random = new Random(seed);
 
         int basePrice = 8000 + random.nextInt(45000);
         BigDecimal price = BigDecimal.valueOf(basePrice);
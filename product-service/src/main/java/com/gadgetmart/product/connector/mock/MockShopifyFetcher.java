@@ -12,8 +12,6 @@ import java.util.Random;
 @Component
 public class MockShopifyFetcher implements PriceFetcher {
 
-    private final Random random = new Random();
-
     @Override
     public String getPlatformName() {
         return "Shopify (Global Store)";
@@ -22,7 +20,7 @@ public class MockShopifyFetcher implements PriceFetcher {
     @Override
     public Optional<Product.PlatformPrice> fetchPrice(String productName) {
         long seed = productName.hashCode() + 777777777;
-        random.setSeed(seed);
+        Random random = new Random(seed);
 
         // Shopify stores might have higher/different pricing models
         int basePrice = 12000 + random.nextInt(60000);
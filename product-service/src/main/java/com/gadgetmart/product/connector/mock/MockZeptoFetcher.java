@@ -12,8 +12,6 @@ import java.util.Random;
 @Component
 public class MockZeptoFetcher implements PriceFetcher {
 
-    private final Random random = new Random();
-
     @Override
     public String getPlatformName() {
         return "Zepto";
@@ -22,7 +20,7 @@ public class MockZeptoFetcher implements PriceFetcher {
     @Override
     public Optional<Product.PlatformPrice> fetchPrice(String productName) {
         long seed = productName.hashCode() + 999999999;
-        random.setSeed(seed);
+        Random random = new Random(seed);
 
         int basePrice = 11000 + random.nextInt(48000);
         BigDecimal price = BigDecimal.valueOf(basePrice);
@@ -0,0 +1,49 @@
+package com.gadgetmart.product.event;
+
+import com.gadgetmart.product.model.PriceSummary;
+import com.gadgetmart.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payload of the price.updated topic: the best available price of a product after a refresh,
+ * keyed by the lower-cased product name (the same key saved products are watched under).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceUpdatedEvent {
+    private String productKey;
+    private String productName;
+    private Double bestPrice;
+    private String platformName;
+    private String platformProductUrl;
+    private LocalDateTime updatedAt;
+
+    public static String keyOf(String productName) {
+        return productName.toLowerCase();
+    }
+
+    /**
+     * @return the event for the cheapest available price, or null when the refresh found none
+     */
+    public static PriceUpdatedEvent from(Product product) {
+        PriceSummary summary = PriceSummary.of(product);
+        if (product.getName() == null || summary.getBestPrice() == null) {
+            return null;
+        }
+        return PriceUpdatedEvent.builder()
+                .productKey(keyOf(product.getName()))
+                .productName(product.getName())
+                .bestPrice(summary.getBestPrice().doubleValue())
+                .platformName(summary.getBestPlatform())
+                .platformProductUrl(summary.getBestPlatformProductUrl())
+                .updatedAt(product.getLastUpdated())
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.gadgetmart.product.event;
+
+import com.gadgetmart.product.model.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes product changes for search-service to index. Events are keyed by product id so
+ * every change to one product lands on the same partition and is consumed in order.
+ * <p>
+ * Refreshed prices also go to price.updated, keyed by product name, for the price-drop alerts
+ * in user-service.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductChangePublisher {
+
+    public static final String PRODUCT_CHANGED_TOPIC = "product.changed";
+    public static final String PRICE_UPDATED_TOPIC = "price.updated";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public void publish(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        ProductChangedEvent event = ProductChangedEvent.from(product);
+
+        try {
+            kafkaTemplate.send(PRODUCT_CHANGED_TOPIC, product.getId(), event)
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            log.warn("Failed to publish change for {}: {}", product.getName(), error.getMessage());
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("Failed to publish change for {}: {}", product.getName(), e.getMessage());
+        }
+    }
+
+    public void publishPriceUpdate(Product product) {
+        PriceUpdatedEvent event = PriceUpdatedEvent.from(product);
+        if (event == null) {
+            return;
+        }
+
+        try {
+            kafkaTemplate.send(PRICE_UPDATED_TOPIC, event.getProductKey(), event)
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            log.warn("Failed to publish price update for {}: {}", product.getName(), error.getMessage());
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("Failed to publish price update for {}: {}", product.getName(), e.getMessage());
+        }
+    }
+}
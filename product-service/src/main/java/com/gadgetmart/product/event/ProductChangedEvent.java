@@ -0,0 +1,41 @@
+package com.gadgetmart.product.event;
+
+import com.gadgetmart.product.model.PriceSummary;
+import com.gadgetmart.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of the product.changed topic: the searchable view of a product, keyed by its id.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private String id;
+    private String name;
+    private String description;
+    private String category;
+    private String brand;
+    private Double minPrice;
+    private String bestPlatform;
+    private Double dealPercent;
+
+    public static ProductChangedEvent from(Product product) {
+        PriceSummary summary = PriceSummary.of(product);
+
+        return ProductChangedEvent.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .category(product.getCategory())
+                .brand(product.getBrand())
+                .minPrice(summary.getBestPrice() == null ? 0.0 : summary.getBestPrice().doubleValue())
+                .bestPlatform(summary.getBestPlatform())
+                .dealPercent(summary.getDealPercent())
+                .build();
+    }
+}
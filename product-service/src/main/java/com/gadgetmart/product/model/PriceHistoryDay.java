@@ -0,0 +1,41 @@
+package com.gadgetmart.product.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Raw price observations for one product on one platform on one day, stored column-wise:
+ * t[i] is the second of the day and p[i] the price in paise of observation i. Hourly rollups
+ * live in the same document. Removed by a TTL index at expireAt.
+ * <p>
+ * _id is "productKey|platform|yyyy-MM-dd", so an observation is a single upsert by id.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "price_history")
+public class PriceHistoryDay {
+
+    @Id
+    private String id;
+    private String productKey;
+    private String platform;
+    private Date day;
+
+    private List<Integer> t;
+    private List<Long> p;
+
+    // Keyed by two-digit hour of day, "00".."23"
+    private Map<String, PriceRollup> hours;
+
+    private long min;
+    private long max;
+    private long last;
+
+    private Date expireAt;
+}
@@ -0,0 +1,32 @@
+package com.gadgetmart.product.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Daily rollups for one product on one platform for one calendar month. Kept far longer than
+ * the raw day buckets; a 30-day lookback reads at most two of these per platform.
+ * <p>
+ * _id is "productKey|platform|yyyy-MM".
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "price_history_daily")
+public class PriceHistoryMonth {
+
+    @Id
+    private String id;
+    private String productKey;
+    private String platform;
+    private Date month;
+
+    // Keyed by two-digit day of month, "01".."31"
+    private Map<String, PriceRollup> days;
+
+    private Date expireAt;
+}
@@ -0,0 +1,23 @@
+package com.gadgetmart.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Min/max/sum/count of the price observations in one hour or one day, in paise.
+ * Maintained with $min/$max/$inc at write time, so downsampled series never need a batch job.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceRollup {
+    private long min;
+    private long max;
+    private long sum;
+    private long count;
+
+    public long average() {
+        return count == 0 ? 0 : sum / count;
+    }
+}
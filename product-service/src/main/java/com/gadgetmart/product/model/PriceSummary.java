@@ -0,0 +1,88 @@
+package com.gadgetmart.product.model;
+
+import com.gadgetmart.product.model.Product.PlatformPrice;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Precomputed view of a product's price list, stored on the product and kept in step with
+ * {@link Product#getPrices()} on every write. Readers that only need the best offer (search
+ * indexing, alerts, history, sorting by deal) use this instead of scanning the list.
+ * Only available offers with a price count.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceSummary {
+
+    private static final String GADGETMART_PLATFORM_PREFIX = "GadgetMart";
+
+    private BigDecimal bestPrice;
+    private String bestPlatform;
+    private String bestPlatformProductUrl;
+    private BigDecimal highestPrice;
+    // highestPrice - bestPrice
+    private BigDecimal spread;
+    // Percent of the highest price saved by buying at the best one; what "best deal" sorts on
+    private double dealPercent;
+    private BigDecimal gadgetMartPrice;
+    // gadgetMartPrice - bestPrice, or null without a GadgetMart offer
+    private BigDecimal savingsVsGadgetMart;
+    private int availableOffers;
+
+    public static PriceSummary of(List<PlatformPrice> prices) {
+        PriceSummary summary = new PriceSummary();
+        if (prices == null) {
+            return summary;
+        }
+
+        PlatformPrice best = null;
+        BigDecimal highest = null;
+        for (PlatformPrice price : prices) {
+            if (!price.isAvailable() || price.getPrice() == null) {
+                continue;
+            }
+            summary.availableOffers++;
+            if (best == null || price.getPrice().compareTo(best.getPrice()) < 0) {
+                best = price;
+            }
+            if (highest == null || price.getPrice().compareTo(highest) > 0) {
+                highest = price.getPrice();
+            }
+            if (price.getPlatformName() != null && price.getPlatformName().startsWith(GADGETMART_PLATFORM_PREFIX)
+                    && (summary.gadgetMartPrice == null || price.getPrice().compareTo(summary.gadgetMartPrice) < 0)) {
+                summary.gadgetMartPrice = price.getPrice();
+            }
+        }
+        if (best == null) {
+            return summary;
+        }
+
+        summary.bestPrice = best.getPrice();
+        summary.bestPlatform = best.getPlatformName();
+        summary.bestPlatformProductUrl = best.getPlatformProductUrl();
+        summary.highestPrice = highest;
+        summary.spread = highest.subtract(best.getPrice());
+        summary.dealPercent = highest.signum() == 0 ? 0
+                : summary.spread.multiply(BigDecimal.valueOf(100)).divide(highest, 2, RoundingMode.HALF_UP).doubleValue();
+        if (summary.gadgetMartPrice != null) {
+            summary.savingsVsGadgetMart = summary.gadgetMartPrice.subtract(best.getPrice());
+        }
+        return summary;
+    }
+
+    /**
+     * The stored summary, or one computed on the spot for products written before summaries
+     * existed (for example entries still in the cache).
+     */
+    public static PriceSummary of(Product product) {
+        return product.getPriceSummary() != null ? product.getPriceSummary() : of(product.getPrices());
+    }
+}
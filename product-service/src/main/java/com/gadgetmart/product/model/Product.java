@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -20,6 +21,8 @@ public class Product {
 
     @Id
     private String id;
+    // Created as name_unique by DataSeeder (auto index creation is off)
+    @Indexed(name = "name_unique", unique = true)
     private String name;
     private String description;
     private String category;
@@ -30,6 +33,12 @@ public class Product {
     // Aggregated list of prices from different platforms
     private List<PlatformPrice> prices;
 
+    // Best offer, spread and savings derived from prices; recomputed on every save
+    private PriceSummary priceSummary;
+
+    // True when one or more platforms missed their deadline during the last refresh
+    private boolean pricesPartial;
+
     private LocalDateTime lastUpdated;
 
     @Data
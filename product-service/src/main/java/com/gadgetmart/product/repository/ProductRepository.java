@@ -1,10 +1,13 @@
 package com.gadgetmart.product.repository;
 
 import com.gadgetmart.product.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +16,8 @@ public interface ProductRepository extends MongoRepository<Product, String> {
 
     Optional<Product> findByName(String name);
 
+    List<Product> findByNameIn(Collection<String> names);
+
     List<Product> findByCategory(String category);
 
     List<Product> findByBrand(String brand);
@@ -21,4 +26,9 @@ public interface ProductRepository extends MongoRepository<Product, String> {
 
     // Find products whose prices haven't been updated recently (e.g., > 1 hour)
     List<Product> findByLastUpdatedBefore(LocalDateTime cutoff);
+
+    // Oldest-first snapshot of stale names for the background refresher; only the name is loaded.
+    // Never-priced products (lastUpdated null or missing) are stale too and sort first.
+    @Query(value = "{ $or: [ { 'lastUpdated': { $lt: ?0 } }, { 'lastUpdated': null } ] }", fields = "{ 'name': 1 }")
+    List<Product> findNamesByLastUpdatedBefore(LocalDateTime cutoff, Pageable pageable);
 }
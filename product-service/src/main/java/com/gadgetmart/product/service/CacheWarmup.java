@@ -0,0 +1,126 @@
+package com.gadgetmart.product.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the most requested products into Redis and the local cache when the instance
+ * starts, so a fresh replica does not send its first traffic to MongoDB. Included in the
+ * readiness health group: the instance reports OUT_OF_SERVICE, with progress, until warm-up
+ * has finished, failed or run out of time, and only then receives traffic.
+ */
+@Component
+@Slf4j
+public class CacheWarmup implements HealthIndicator {
+
+    private enum State {
+        PENDING, WARMING, DONE, TIMED_OUT, FAILED, DISABLED
+    }
+
+    private final ProductService productService;
+    private final ProductDemandTracker demandTracker;
+
+    @Value("${product.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${product.warmup.top-products:1000}")
+    private int topProducts;
+
+    @Value("${product.warmup.batch-size:100}")
+    private int batchSize;
+
+    // Batches in flight at once, so warm-up does not compete with live traffic for Mongo
+    @Value("${product.warmup.concurrency:4}")
+    private int concurrency;
+
+    // A slow warm-up stops gating readiness after this long
+    @Value("${product.warmup.max-duration-seconds:60}")
+    private long maxDurationSeconds;
+
+    private volatile State state = State.PENDING;
+    private volatile int target;
+    private final AtomicInteger warmed = new AtomicInteger();
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    public CacheWarmup(ProductService productService, ProductDemandTracker demandTracker) {
+        this.productService = productService;
+        this.demandTracker = demandTracker;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            state = State.DISABLED;
+            return;
+        }
+        Thread thread = new Thread(this::run, "cache-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        startedAt = System.currentTimeMillis();
+        state = State.WARMING;
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, concurrency));
+        try {
+            List<String> names = demandTracker.topProducts(topProducts);
+            target = names.size();
+
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            for (int from = 0; from < names.size(); from += batchSize) {
+                List<String> batch = names.subList(from, Math.min(from + batchSize, names.size()));
+                batches.add(CompletableFuture.runAsync(() -> warmed.addAndGet(productService.warmCache(batch)), pool));
+            }
+            CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new))
+                    .get(maxDurationSeconds, TimeUnit.SECONDS);
+            state = State.DONE;
+            log.info("🔥 Cache warm-up loaded {} of {} hot products in {} ms", warmed.get(), target,
+                    System.currentTimeMillis() - startedAt);
+        } catch (TimeoutException e) {
+            state = State.TIMED_OUT;
+            log.warn("Cache warm-up stopped after {} s with {} of {} products loaded", maxDurationSeconds,
+                    warmed.get(), target);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state = State.FAILED;
+        } catch (Exception e) {
+            // A cold cache is slower, not broken: never keep the instance out of rotation for it
+            state = State.FAILED;
+            log.warn("Cache warm-up failed: {}", e.getMessage());
+        } finally {
+            finishedAt = System.currentTimeMillis();
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    public Health health() {
+        State current = state;
+        Health.Builder builder = current == State.PENDING || current == State.WARMING
+                ? Health.outOfService()
+                : Health.up();
+        builder.withDetail("state", current)
+                .withDetail("warmed", warmed.get())
+                .withDetail("target", target);
+        if (startedAt > 0) {
+            long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+            builder.withDetail("elapsedMs", end - startedAt);
+        }
+        return builder.build();
+    }
+}
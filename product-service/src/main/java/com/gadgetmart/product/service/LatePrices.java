@@ -0,0 +1,13 @@
+package com.gadgetmart.product.service;
+
+import com.gadgetmart.product.model.Product.PlatformPrice;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prices from a source that missed its fan-out deadline but finished afterwards, keyed by the
+ * requested product name. Published by PriceAggregator and merged by ProductService.
+ */
+public record LatePrices(String platform, Map<String, List<PlatformPrice>> pricesByName) {
+}
@@ -0,0 +1,58 @@
+package com.gadgetmart.product.service;
+
+import com.gadgetmart.product.config.PriceFetchProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token-bucket budget of connector calls per platform for background refreshes, so the
+ * scheduler cannot burn through an external API's quota that user traffic also needs.
+ */
+@Component
+public class PlatformRateBudget {
+
+    private final double permitsPerMinute;
+    private final Map<String, Bucket> buckets = new HashMap<>();
+
+    public PlatformRateBudget(@Value("${product.refresh.scheduler.calls-per-minute-per-platform:120}") double permitsPerMinute) {
+        this.permitsPerMinute = permitsPerMinute;
+    }
+
+    /**
+     * Takes one permit from every given platform, or none if any of them is exhausted.
+     */
+    public synchronized boolean tryAcquire(Collection<String> platforms) {
+        long now = System.nanoTime();
+        for (String platform : platforms) {
+            if (bucket(platform).refill(now) < 1) {
+                return false;
+            }
+        }
+        platforms.forEach(platform -> bucket(platform).tokens -= 1);
+        return true;
+    }
+
+    private Bucket bucket(String platform) {
+        return buckets.computeIfAbsent(PriceFetchProperties.slug(platform), k -> new Bucket(permitsPerMinute));
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        private Bucket(double initialTokens) {
+            this.tokens = initialTokens;
+        }
+
+        private double refill(long now) {
+            double elapsedMinutes = (now - lastRefill) / 60_000_000_000.0;
+            tokens = Math.min(permitsPerMinute, tokens + elapsedMinutes * permitsPerMinute);
+            lastRefill = now;
+            return tokens;
+        }
+    }
+}
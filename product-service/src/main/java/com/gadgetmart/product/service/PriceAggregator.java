@@ -0,0 +1,252 @@
+package com.gadgetmart.product.service;
+
+import com.gadgetmart.product.apify.ApifyService;
+import com.gadgetmart.product.connector.ConnectorGuard;
+import com.gadgetmart.product.connector.ConnectorGuards;
+import com.gadgetmart.product.connector.PriceFetcher;
+import com.gadgetmart.product.model.Product.PlatformPrice;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Scatter-gather over every price source (Apify + all PriceFetcher beans).
+ * All connectors start at the same instant and each one is awaited only until its own
+ * deadline, so a cold lookup costs the slowest platform that answers in time rather than
+ * the sum of all of them. Batches share the same fan-out: each connector gets one call for
+ * every product in the batch.
+ * <p>
+ * Every call goes through the platform's {@link ConnectorGuard}: an open breaker or a full
+ * bulkhead skips the platform without using a thread, and the deadline adapts to the
+ * platform's observed latency.
+ * <p>
+ * Apify runs are not abandoned at the deadline: they keep going (bounded by
+ * apify.run-timeout-ms) and their prices are published as {@link LatePrices} when they land.
+ */
+@Service
+@Slf4j
+public class PriceAggregator {
+
+    private static final String APIFY_PLATFORM = "Apify";
+
+    private final ApifyService apifyService;
+    private final List<PriceFetcher> priceFetchers;
+    private final ThreadPoolTaskExecutor priceFetchExecutor;
+    private final ConnectorGuards connectorGuards;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PriceAggregator(ApifyService apifyService, List<PriceFetcher> priceFetchers,
+            ThreadPoolTaskExecutor priceFetchExecutor, ConnectorGuards connectorGuards,
+            ApplicationEventPublisher eventPublisher) {
+        this.apifyService = apifyService;
+        this.priceFetchers = priceFetchers;
+        this.priceFetchExecutor = priceFetchExecutor;
+        this.connectorGuards = connectorGuards;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public PriceFetchResult fetchAll(String productName) {
+        return fetchAll(List.of(productName)).get(productName);
+    }
+
+    /**
+     * One shared fan-out for several products: each connector gets a single batched call for
+     * all of them, bounded by that connector's deadline.
+     *
+     * @return a result for every requested name
+     */
+    public Map<String, PriceFetchResult> fetchAll(Collection<String> productNames) {
+        long startedAt = System.nanoTime();
+        List<String> names = List.copyOf(new LinkedHashSet<>(productNames));
+
+        List<PendingFetch> pending = new ArrayList<>(priceFetchers.size() + 1);
+        // Apify is already asynchronous (run + poll), so it does not take a pool thread
+        pending.add(startAsync(APIFY_PLATFORM, () -> fetchFromApify(names)));
+        for (PriceFetcher fetcher : priceFetchers) {
+            pending.add(startOnPool(fetcher.getPlatformName(), () -> {
+                Map<String, List<PlatformPrice>> byName = new HashMap<>();
+                fetcher.fetchPrices(names).forEach((name, price) -> byName.put(name, List.of(price)));
+                return byName;
+            }));
+        }
+
+        Map<String, List<PlatformPrice>> prices = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        names.forEach(name -> prices.put(name, new ArrayList<>()));
+
+        for (PendingFetch fetch : pending) {
+            if (fetch.future == null) {
+                missing.add(fetch.platform);
+                continue;
+            }
+            long timeoutMs = fetch.guard.timeoutMs();
+            long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            try {
+                fetch.future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                        .forEach((name, platformPrices) -> {
+                            List<PlatformPrice> forName = prices.get(name);
+                            if (forName != null) {
+                                forName.addAll(platformPrices);
+                            }
+                        });
+            } catch (TimeoutException e) {
+                fetch.timedOut.run();
+                missing.add(fetch.platform);
+                log.warn("{} missed its {} ms deadline for {} products", fetch.platform, timeoutMs, names.size());
+            } catch (ExecutionException e) {
+                missing.add(fetch.platform);
+                log.error("Failed to fetch from {}: {}", fetch.platform, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.forEach(p -> {
+                    if (p.future != null)
+                        p.timedOut.run();
+                });
+                missing.add(fetch.platform);
+                break;
+            }
+        }
+
+        log.info("Fetched prices for {} products in {} ms ({} platforms missing)", names.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), missing.size());
+        Map<String, PriceFetchResult> results = new LinkedHashMap<>();
+        names.forEach(name -> results.put(name, new PriceFetchResult(prices.get(name), missing)));
+        return results;
+    }
+
+    /**
+     * Names of every source a full refresh calls, as used for per-platform budgets and deadlines.
+     */
+    public List<String> platformNames() {
+        List<String> names = new ArrayList<>(priceFetchers.size() + 1);
+        names.add(APIFY_PLATFORM);
+        priceFetchers.forEach(fetcher -> names.add(fetcher.getPlatformName()));
+        return names;
+    }
+
+    private PendingFetch startOnPool(String platform, Callable<Map<String, List<PlatformPrice>>> task) {
+        ConnectorGuard guard = connectorGuards.forPlatform(platform);
+        if (!guard.tryAcquire()) {
+            log.debug("Skipping {}: circuit open or bulkhead full", platform);
+            return PendingFetch.skipped(platform);
+        }
+
+        long startedAt = System.nanoTime();
+        // Whoever flips this first owns the bulkhead slot: the task when it starts running, or
+        // the deadline handler if the task is still queued (in which case it never runs)
+        AtomicBoolean claimed = new AtomicBoolean();
+        AtomicBoolean outcomeRecorded = new AtomicBoolean();
+
+        Callable<Map<String, List<PlatformPrice>>> guarded = () -> {
+            if (!claimed.compareAndSet(false, true)) {
+                throw new CancellationException();
+            }
+            try {
+                Map<String, List<PlatformPrice>> result = task.call();
+                if (outcomeRecorded.compareAndSet(false, true)) {
+                    guard.onSuccess(System.nanoTime() - startedAt);
+                }
+                return result;
+            } catch (Exception e) {
+                if (outcomeRecorded.compareAndSet(false, true)) {
+                    guard.onError(System.nanoTime() - startedAt, e);
+                }
+                throw e;
+            } finally {
+                // The bulkhead slot is held for as long as the connector call really runs
+                guard.release();
+            }
+        };
+
+        Future<Map<String, List<PlatformPrice>>> future;
+        try {
+            future = priceFetchExecutor.submit(guarded);
+        } catch (RejectedExecutionException e) {
+            guard.abandon();
+            log.warn("Price fetch pool saturated, skipping {}", platform);
+            return PendingFetch.skipped(platform);
+        }
+
+        return new PendingFetch(platform, guard, future, () -> {
+            future.cancel(true);
+            if (outcomeRecorded.compareAndSet(false, true)) {
+                guard.onError(System.nanoTime() - startedAt, new TimeoutException());
+            }
+            if (claimed.compareAndSet(false, true)) {
+                guard.release();
+            }
+        });
+    }
+
+    private PendingFetch startAsync(String platform, Supplier<CompletableFuture<Map<String, List<PlatformPrice>>>> call) {
+        ConnectorGuard guard = connectorGuards.forPlatform(platform);
+        if (!guard.tryAcquire()) {
+            log.debug("Skipping {}: circuit open or bulkhead full", platform);
+            return PendingFetch.skipped(platform);
+        }
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<Map<String, List<PlatformPrice>>> future = call.get();
+        // Recorded when the call really ends, so a late success feeds its true latency into the
+        // adaptive deadline and the bulkhead slot is held for as long as the run goes on
+        future.whenComplete((prices, error) -> {
+            if (error == null) {
+                guard.onSuccess(System.nanoTime() - startedAt);
+            } else {
+                guard.onError(System.nanoTime() - startedAt,
+                        error instanceof CancellationException ? new TimeoutException() : error);
+            }
+            guard.release();
+        });
+        // Past the deadline the caller moves on, but the result is still worth keeping
+        return new PendingFetch(platform, guard, future, () -> future.thenAccept(prices -> {
+            if (prices.values().stream().anyMatch(list -> !list.isEmpty())) {
+                log.info("{} finished after its deadline with prices for {} products", platform, prices.size());
+                eventPublisher.publishEvent(new LatePrices(platform, prices));
+            }
+        }));
+    }
+
+    /**
+     * Apify runs one actor per search, so a batch is the runs started side by side and joined.
+     */
+    private CompletableFuture<Map<String, List<PlatformPrice>>> fetchFromApify(List<String> names) {
+        Map<String, CompletableFuture<List<PlatformPrice>>> runs = new LinkedHashMap<>();
+        names.forEach(name -> runs.put(name, apifyService.fetchPricesFromApifyAsync(name)));
+
+        return CompletableFuture
+                .allOf(runs.values().toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<String, List<PlatformPrice>> byName = new HashMap<>();
+                    runs.forEach((name, run) -> byName.put(name, run.join()));
+                    return byName;
+                });
+    }
+
+    private record PendingFetch(String platform, ConnectorGuard guard, Future<Map<String, List<PlatformPrice>>> future,
+            Runnable timedOut) {
+
+        static PendingFetch skipped(String platform) {
+            return new PendingFetch(platform, null, null, null);
+        }
+    }
+}
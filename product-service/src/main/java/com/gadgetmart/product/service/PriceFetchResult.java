@@ -0,0 +1,23 @@
+package com.gadgetmart.product.service;
+
+import com.gadgetmart.product.model.Product.PlatformPrice;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of one scatter-gather round: the prices that arrived before their platform's
+ * deadline, plus the platforms that timed out or failed.
+ */
+@Getter
+@AllArgsConstructor
+public class PriceFetchResult {
+
+    private final List<PlatformPrice> prices;
+    private final List<String> missingPlatforms;
+
+    public boolean isPartial() {
+        return !missingPlatforms.isEmpty();
+    }
+}
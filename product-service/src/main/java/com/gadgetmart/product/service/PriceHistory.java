@@ -0,0 +1,61 @@
+package com.gadgetmart.product.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response of GET /api/products/{name}/history.
+ */
+@Getter
+@Builder
+public class PriceHistory {
+
+    public enum Resolution {
+        RAW, HOURLY, DAILY
+    }
+
+    public enum Trend {
+        UP, DOWN, FLAT
+    }
+
+    private final String productName;
+    private final Resolution resolution;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final List<Point> series;
+
+    // Over the requested range, all platforms
+    private final BigDecimal min;
+    private final BigDecimal max;
+
+    private final Lowest lowestIn30Days;
+    private final BigDecimal currentBestPrice;
+    // True when the current best price is within the configured tolerance of the 30-day low
+    private final boolean goodPrice;
+    // Average daily best price over the last 7 days compared with the 7 days before
+    private final Trend trend;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Point {
+        private final LocalDateTime time;
+        private final String platform;
+        private final BigDecimal min;
+        private final BigDecimal max;
+        private final BigDecimal avg;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Lowest {
+        private final BigDecimal price;
+        private final String platform;
+        private final LocalDate date;
+    }
+}
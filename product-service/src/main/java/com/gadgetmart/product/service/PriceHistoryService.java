@@ -0,0 +1,331 @@
+package com.gadgetmart.product.service;
+
+import com.gadgetmart.product.model.PriceHistoryDay;
+import com.gadgetmart.product.model.PriceHistoryMonth;
+import com.gadgetmart.product.model.PriceRollup;
+import com.gadgetmart.product.model.PriceSummary;
+import com.gadgetmart.product.model.Product;
+import com.gadgetmart.product.model.Product.PlatformPrice;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Append-only price history for every PlatformPrice observation, in two tiers:
+ * <ul>
+ * <li>price_history: one document per product, platform and day with the raw observations as
+ * parallel arrays plus hourly rollups; kept for raw-retention-days.</li>
+ * <li>price_history_daily: one document per product, platform and month with daily rollups;
+ * kept for daily-retention-days.</li>
+ * </ul>
+ * Both tiers are updated by upserts in one unordered bulk write per refresh, and both expire
+ * through TTL indexes, so storage stays bounded however long the catalog runs.
+ */
+@Service
+@Slf4j
+public class PriceHistoryService {
+
+    private static final String SEPARATOR = "|";
+    private static final int LOOKBACK_DAYS = 30;
+    private static final int TREND_DAYS = 7;
+    private static final double TREND_THRESHOLD = 0.02;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration rawRetention;
+    private final Duration dailyRetention;
+    private final double goodPriceTolerance;
+
+    public PriceHistoryService(MongoTemplate mongoTemplate,
+            @Value("${product.history.raw-retention-days:30}") long rawRetentionDays,
+            @Value("${product.history.daily-retention-days:730}") long dailyRetentionDays,
+            @Value("${product.history.good-price-tolerance:0.02}") double goodPriceTolerance) {
+        this.mongoTemplate = mongoTemplate;
+        this.rawRetention = Duration.ofDays(rawRetentionDays);
+        this.dailyRetention = Duration.ofDays(dailyRetentionDays);
+        this.goodPriceTolerance = goodPriceTolerance;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            for (Class<?> type : List.of(PriceHistoryDay.class, PriceHistoryMonth.class)) {
+                mongoTemplate.indexOps(type).ensureIndex(new Index("expireAt", Sort.Direction.ASC).expire(Duration.ZERO));
+            }
+            mongoTemplate.indexOps(PriceHistoryDay.class).ensureIndex(new Index()
+                    .on("productKey", Sort.Direction.ASC).on("day", Sort.Direction.ASC));
+            mongoTemplate.indexOps(PriceHistoryMonth.class).ensureIndex(new Index()
+                    .on("productKey", Sort.Direction.ASC).on("month", Sort.Direction.ASC));
+        } catch (Exception e) {
+            log.warn("Failed to ensure price history indexes: {}", e.getMessage());
+        }
+    }
+
+    public void record(Product product) {
+        recordAll(List.of(product));
+    }
+
+    /**
+     * Appends only the given prices of a product, e.g. late platform results merged into prices
+     * whose other entries were recorded already.
+     */
+    public void recordPrices(String productName, List<PlatformPrice> prices) {
+        recordAll(List.of(Product.builder().name(productName).prices(prices).build()));
+    }
+
+    /**
+     * Appends the current prices of the given products to the history.
+     */
+    public void recordAll(Collection<Product> products) {
+        BulkOperations dayOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceHistoryDay.class);
+        BulkOperations monthOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceHistoryMonth.class);
+        int observations = 0;
+
+        for (Product product : products) {
+            if (product.getPrices() == null) {
+                continue;
+            }
+            String productKey = productKey(product.getName());
+            for (PlatformPrice price : product.getPrices()) {
+                if (price.getPrice() == null) {
+                    continue;
+                }
+                LocalDateTime at = price.getFetchedAt() != null ? price.getFetchedAt() : LocalDateTime.now();
+                long paise = toPaise(price.getPrice());
+                addObservation(dayOps, monthOps, productKey, price.getPlatformName(), at, paise);
+                observations++;
+            }
+        }
+        if (observations == 0) {
+            return;
+        }
+
+        try {
+            dayOps.execute();
+            monthOps.execute();
+        } catch (Exception e) {
+            log.warn("Failed to record {} price observations: {}", observations, e.getMessage());
+        }
+    }
+
+    private void addObservation(BulkOperations dayOps, BulkOperations monthOps, String productKey, String platform,
+            LocalDateTime at, long paise) {
+        LocalDate day = at.toLocalDate();
+        String hour = String.format("%02d", at.getHour());
+        Update dayUpdate = new Update()
+                .push("t", at.toLocalTime().toSecondOfDay())
+                .push("p", paise)
+                .min("min", paise)
+                .max("max", paise)
+                .set("last", paise)
+                .min("hours." + hour + ".min", paise)
+                .max("hours." + hour + ".max", paise)
+                .inc("hours." + hour + ".sum", paise)
+                .inc("hours." + hour + ".count", 1)
+                .setOnInsert("productKey", productKey)
+                .setOnInsert("platform", platform)
+                .setOnInsert("day", toDate(day.atStartOfDay()))
+                .setOnInsert("expireAt", toDate(day.atStartOfDay().plus(rawRetention)));
+        dayOps.upsert(byId(productKey, platform, day.toString()), dayUpdate);
+
+        YearMonth month = YearMonth.from(day);
+        String dayOfMonth = String.format("%02d", day.getDayOfMonth());
+        Update monthUpdate = new Update()
+                .min("days." + dayOfMonth + ".min", paise)
+                .max("days." + dayOfMonth + ".max", paise)
+                .inc("days." + dayOfMonth + ".sum", paise)
+                .inc("days." + dayOfMonth + ".count", 1)
+                .setOnInsert("productKey", productKey)
+                .setOnInsert("platform", platform)
+                .setOnInsert("month", toDate(month.atDay(1).atStartOfDay()))
+                .setOnInsert("expireAt", toDate(month.atDay(1).atStartOfDay().plus(dailyRetention)));
+        monthOps.upsert(byId(productKey, platform, month.toString()), monthUpdate);
+    }
+
+    /**
+     * Price series and deal indicators for one product. The resolution defaults to raw for up
+     * to a day, hourly for up to a week and daily beyond that.
+     */
+    public PriceHistory history(Product product, int days, PriceHistory.Resolution resolution, String platform) {
+        String productKey = productKey(product.getName());
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(days);
+        if (resolution == null) {
+            resolution = days <= 1 ? PriceHistory.Resolution.RAW
+                    : days <= 7 ? PriceHistory.Resolution.HOURLY
+                    : PriceHistory.Resolution.DAILY;
+        }
+
+        List<PriceHistory.Point> series = switch (resolution) {
+            case RAW, HOURLY -> fromDayBuckets(productKey, platform, from, to, resolution);
+            case DAILY -> fromMonthDocs(productKey, platform, from.toLocalDate(), to.toLocalDate());
+        };
+
+        // Deal indicators always come from the daily rollups of all platforms: at most two
+        // small month documents per platform, whatever the requested range
+        List<PriceHistory.Point> daily = fromMonthDocs(productKey, null, to.toLocalDate().minusDays(LOOKBACK_DAYS),
+                to.toLocalDate());
+        PriceHistory.Lowest lowest = daily.stream()
+                .min(Comparator.comparing(PriceHistory.Point::getMin))
+                .map(point -> new PriceHistory.Lowest(point.getMin(), point.getPlatform(), point.getTime().toLocalDate()))
+                .orElse(null);
+
+        BigDecimal currentBest = PriceSummary.of(product).getBestPrice();
+        boolean goodPrice = currentBest != null && lowest != null
+                && currentBest.doubleValue() <= lowest.getPrice().doubleValue() * (1 + goodPriceTolerance);
+
+        return PriceHistory.builder()
+                .productName(product.getName())
+                .resolution(resolution)
+                .from(from)
+                .to(to)
+                .series(series)
+                .min(series.stream().map(PriceHistory.Point::getMin).min(BigDecimal::compareTo).orElse(null))
+                .max(series.stream().map(PriceHistory.Point::getMax).max(BigDecimal::compareTo).orElse(null))
+                .lowestIn30Days(lowest)
+                .currentBestPrice(currentBest)
+                .goodPrice(goodPrice)
+                .trend(trend(daily, to.toLocalDate()))
+                .build();
+    }
+
+    private List<PriceHistory.Point> fromDayBuckets(String productKey, String platform, LocalDateTime from,
+            LocalDateTime to, PriceHistory.Resolution resolution) {
+        Criteria criteria = Criteria.where("productKey").is(productKey)
+                .and("day").gte(toDate(from.toLocalDate().atStartOfDay())).lte(toDate(to));
+        if (platform != null) {
+            criteria = criteria.and("platform").is(platform);
+        }
+        Query query = new Query(criteria).with(Sort.by("day"));
+        if (resolution == PriceHistory.Resolution.HOURLY) {
+            query.fields().exclude("t", "p");
+        }
+
+        List<PriceHistory.Point> points = new ArrayList<>();
+        for (PriceHistoryDay bucket : mongoTemplate.find(query, PriceHistoryDay.class)) {
+            LocalDateTime dayStart = toLocalDateTime(bucket.getDay());
+            if (resolution == PriceHistory.Resolution.RAW) {
+                for (int i = 0; i < bucket.getT().size(); i++) {
+                    LocalDateTime time = dayStart.plusSeconds(bucket.getT().get(i));
+                    BigDecimal price = fromPaise(bucket.getP().get(i));
+                    if (!time.isBefore(from)) {
+                        points.add(new PriceHistory.Point(time, bucket.getPlatform(), price, price, price));
+                    }
+                }
+            } else {
+                new TreeMap<>(bucket.getHours()).forEach((hour, rollup) -> {
+                    LocalDateTime time = dayStart.plusHours(Integer.parseInt(hour));
+                    if (!time.plusHours(1).isBefore(from)) {
+                        points.add(toPoint(time, bucket.getPlatform(), rollup));
+                    }
+                });
+            }
+        }
+        points.sort(Comparator.comparing(PriceHistory.Point::getTime));
+        return points;
+    }
+
+    private List<PriceHistory.Point> fromMonthDocs(String productKey, String platform, LocalDate from, LocalDate to) {
+        Criteria criteria = Criteria.where("productKey").is(productKey)
+                .and("month").gte(toDate(YearMonth.from(from).atDay(1).atStartOfDay()))
+                .lte(toDate(to.atStartOfDay()));
+        if (platform != null) {
+            criteria = criteria.and("platform").is(platform);
+        }
+
+        List<PriceHistory.Point> points = new ArrayList<>();
+        for (PriceHistoryMonth doc : mongoTemplate.find(new Query(criteria), PriceHistoryMonth.class)) {
+            LocalDate monthStart = toLocalDateTime(doc.getMonth()).toLocalDate();
+            for (Map.Entry<String, PriceRollup> entry : doc.getDays().entrySet()) {
+                LocalDate day = monthStart.withDayOfMonth(Integer.parseInt(entry.getKey()));
+                if (!day.isBefore(from) && !day.isAfter(to)) {
+                    points.add(toPoint(day.atStartOfDay(), doc.getPlatform(), entry.getValue()));
+                }
+            }
+        }
+        points.sort(Comparator.comparing(PriceHistory.Point::getTime));
+        return points;
+    }
+
+    /**
+     * Compares the average daily best price (lowest across platforms) of the last week with
+     * the week before it.
+     */
+    private PriceHistory.Trend trend(List<PriceHistory.Point> daily, LocalDate today) {
+        Map<LocalDate, BigDecimal> bestByDay = new TreeMap<>();
+        daily.forEach(point -> bestByDay.merge(point.getTime().toLocalDate(), point.getMin(), BigDecimal::min));
+
+        LocalDate recentStart = today.minusDays(TREND_DAYS - 1);
+        LocalDate previousStart = recentStart.minusDays(TREND_DAYS);
+        double recent = averageBetween(bestByDay, recentStart, today);
+        double previous = averageBetween(bestByDay, previousStart, recentStart.minusDays(1));
+        if (recent == 0 || previous == 0) {
+            return PriceHistory.Trend.FLAT;
+        }
+        double change = (recent - previous) / previous;
+        if (change > TREND_THRESHOLD)
+            return PriceHistory.Trend.UP;
+        if (change < -TREND_THRESHOLD)
+            return PriceHistory.Trend.DOWN;
+        return PriceHistory.Trend.FLAT;
+    }
+
+    private static double averageBetween(Map<LocalDate, BigDecimal> bestByDay, LocalDate from, LocalDate to) {
+        return bestByDay.entrySet().stream()
+                .filter(entry -> !entry.getKey().isBefore(from) && !entry.getKey().isAfter(to))
+                .mapToDouble(entry -> entry.getValue().doubleValue())
+                .average()
+                .orElse(0);
+    }
+
+    private static PriceHistory.Point toPoint(LocalDateTime time, String platform, PriceRollup rollup) {
+        return new PriceHistory.Point(time, platform, fromPaise(rollup.getMin()), fromPaise(rollup.getMax()),
+                fromPaise(rollup.average()));
+    }
+
+    private static Query byId(String productKey, String platform, String period) {
+        return new Query(Criteria.where("_id").is(productKey + SEPARATOR + platform + SEPARATOR + period));
+    }
+
+    private static String productKey(String productName) {
+        return productName.toLowerCase();
+    }
+
+    private static long toPaise(BigDecimal price) {
+        return price.movePointRight(2).longValue();
+    }
+
+    private static BigDecimal fromPaise(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
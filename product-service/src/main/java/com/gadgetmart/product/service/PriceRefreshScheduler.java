@@ -0,0 +1,165 @@
+package com.gadgetmart.product.service;
+
+import com.gadgetmart.product.cache.RefreshLease;
+import com.gadgetmart.product.model.Product;
+import com.gadgetmart.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps prices warm without a user waiting on the connectors.
+ * Each cycle first refreshes the most requested products that are about to go stale, then
+ * spends any remaining per-platform budget on the oldest stale products, oldest first.
+ * Only one replica runs a cycle at a time.
+ */
+@Component
+@ConditionalOnProperty(name = "product.refresh.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PriceRefreshScheduler {
+
+    private static final String CYCLE_LEASE_KEY = "price-refresh-scheduler";
+
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final ProductDemandTracker demandTracker;
+    private final PriceAggregator priceAggregator;
+    private final PlatformRateBudget rateBudget;
+    private final RefreshLease refreshLease;
+    private final ThreadPoolTaskExecutor priceSchedulerExecutor;
+
+    @Value("${product.refresh.scheduler.hot-products:200}")
+    private int hotProducts;
+
+    // Hot products are refreshed once they are within this long of their soft TTL
+    @Value("${product.refresh.scheduler.lead-minutes:10}")
+    private long leadMinutes;
+
+    @Value("${product.refresh.scheduler.max-cold-per-cycle:500}")
+    private int maxColdPerCycle;
+
+    @Value("${product.refresh.scheduler.interval-ms:60000}")
+    private long intervalMs;
+
+    public PriceRefreshScheduler(ProductService productService, ProductRepository productRepository,
+            ProductDemandTracker demandTracker, PriceAggregator priceAggregator, PlatformRateBudget rateBudget,
+            RefreshLease refreshLease, ThreadPoolTaskExecutor priceSchedulerExecutor) {
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.demandTracker = demandTracker;
+        this.priceAggregator = priceAggregator;
+        this.rateBudget = rateBudget;
+        this.refreshLease = refreshLease;
+        this.priceSchedulerExecutor = priceSchedulerExecutor;
+    }
+
+    @Scheduled(fixedDelayString = "${product.refresh.scheduler.interval-ms:60000}",
+            initialDelayString = "${product.refresh.scheduler.initial-delay-ms:60000}")
+    public void refreshCycle() {
+        Optional<String> lease = refreshLease.tryAcquire(CYCLE_LEASE_KEY, Duration.ofMillis(intervalMs * 2));
+        if (lease.isEmpty()) {
+            return;
+        }
+        try {
+            long startedAt = System.currentTimeMillis();
+            List<CompletableFuture<Boolean>> refreshes = new ArrayList<>();
+            Set<String> scheduled = new HashSet<>();
+
+            boolean budgetLeft = scheduleHotProducts(refreshes, scheduled);
+            int hot = refreshes.size();
+            if (budgetLeft) {
+                scheduleColdProducts(refreshes, scheduled);
+            }
+
+            CompletableFuture.allOf(refreshes.toArray(CompletableFuture[]::new)).join();
+            long refreshed = refreshes.stream().filter(CompletableFuture::join).count();
+            log.info("Price refresh cycle: {} hot + {} stale products scheduled, {} refreshed in {} ms",
+                    hot, refreshes.size() - hot, refreshed, System.currentTimeMillis() - startedAt);
+        } finally {
+            refreshLease.release(CYCLE_LEASE_KEY, lease.get());
+        }
+    }
+
+    private boolean scheduleHotProducts(List<CompletableFuture<Boolean>> refreshes, Set<String> scheduled) {
+        List<String> hotNames = demandTracker.topProducts(hotProducts);
+        if (hotNames.isEmpty()) {
+            return true;
+        }
+
+        LocalDateTime refreshBefore = LocalDateTime.now()
+                .minus(productService.getSoftTtl())
+                .plusMinutes(leadMinutes);
+        List<Product> candidates = productRepository.findByNameIn(hotNames);
+        // findByNameIn does not preserve order; keep the demand ranking
+        candidates.sort((a, b) -> Integer.compare(hotNames.indexOf(a.getName()), hotNames.indexOf(b.getName())));
+
+        for (Product product : candidates) {
+            if (product.getLastUpdated() != null && product.getLastUpdated().isAfter(refreshBefore)) {
+                continue;
+            }
+            if (!schedule(product.getName(), refreshes, scheduled)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void scheduleColdProducts(List<CompletableFuture<Boolean>> refreshes, Set<String> scheduled) {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(productService.getSoftTtl());
+        // Refreshing rewrites lastUpdated, so paging over it would shift products between pages and
+        // skip some. Take one oldest-first snapshot, sized to cover the hot products already scheduled.
+        List<Product> stale = productRepository.findNamesByLastUpdatedBefore(staleBefore,
+                PageRequest.of(0, maxColdPerCycle + scheduled.size(), Sort.by("lastUpdated").ascending()));
+
+        int cold = 0;
+        for (Product product : stale) {
+            if (cold >= maxColdPerCycle) {
+                return;
+            }
+            if (scheduled.contains(product.getName())) {
+                continue;
+            }
+            if (!schedule(product.getName(), refreshes, scheduled)) {
+                return;
+            }
+            cold++;
+        }
+    }
+
+    /**
+     * @return false once any platform's budget is exhausted, which ends the cycle
+     */
+    private boolean schedule(String productName, List<CompletableFuture<Boolean>> refreshes, Set<String> scheduled) {
+        if (!scheduled.add(productName)) {
+            return true;
+        }
+        if (!rateBudget.tryAcquire(priceAggregator.platformNames())) {
+            log.info("Per-platform refresh budget exhausted, deferring remaining products");
+            return false;
+        }
+        // The pool uses caller-runs, so a full queue slows this loop down instead of dropping work
+        refreshes.add(CompletableFuture.supplyAsync(() -> {
+            try {
+                return productService.refreshProduct(productName);
+            } catch (Exception e) {
+                log.error("Scheduled price refresh failed for {}: {}", productName, e.getMessage());
+                return false;
+            }
+        }, priceSchedulerExecutor));
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package com.gadgetmart.product.service;
+
+import com.gadgetmart.product.model.PriceSummary;
+import com.gadgetmart.product.model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps {@link Product#getPriceSummary()} in step with the price list: every save recomputes it
+ * before the document is written, whichever code path saved the product. Products stored before
+ * summaries existed are backfilled once at startup.
+ */
+@Component
+@Slf4j
+public class PriceSummaryService implements BeforeConvertCallback<Product> {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${product.price-summary.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    // Lazy: MongoTemplate itself looks up entity callbacks while it is being created
+    public PriceSummaryService(@Lazy MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Product onBeforeConvert(Product product, String collection) {
+        product.setPriceSummary(PriceSummary.of(product.getPrices()));
+        return product;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            long updated = 0;
+            List<Product> batch;
+            Query missing = new Query(Criteria.where("priceSummary").exists(false)).limit(backfillBatchSize);
+            missing.fields().include("prices");
+            // Each pass sets the summary on the batch it read, so the next pass sees the next one
+            while (!(batch = mongoTemplate.find(missing, Product.class)).isEmpty()) {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+                batch.forEach(product -> bulk.updateOne(Query.query(Criteria.where("_id").is(product.getId())),
+                        Update.update("priceSummary", PriceSummary.of(product.getPrices()))));
+                bulk.execute();
+                updated += batch.size();
+            }
+            if (updated > 0) {
+                log.info("Backfilled price summaries for {} products", updated);
+            }
+        } catch (Exception e) {
+            log.warn("Price summary backfill skipped: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.gadgetmart.product.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts product page requests so hot products can be refreshed ahead of expiry.
+ * Requests are counted locally and flushed to a shared Redis sorted set in one pipeline;
+ * the shared scores are halved periodically so the ranking follows recent demand.
+ */
+@Component
+@Slf4j
+public class ProductDemandTracker {
+
+    private static final String DEMAND_KEY = "product:demand";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ConcurrentHashMap<String, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+
+    public ProductDemandTracker(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    public void recordRequest(String productName) {
+        pendingCounts.computeIfAbsent(productName, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return up to {@code limit} product names, most requested first
+     */
+    public List<String> topProducts(int limit) {
+        try {
+            Set<String> names = stringRedisTemplate.opsForZSet().reverseRange(DEMAND_KEY, 0, limit - 1L);
+            return names == null ? List.of() : new ArrayList<>(names);
+        } catch (Exception e) {
+            log.warn("Failed to read product demand ranking: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.demand.flush-interval-ms:10000}")
+    public void flush() {
+        if (pendingCounts.isEmpty()) {
+            return;
+        }
+        // Swap entries out rather than resetting them so names requested once don't linger;
+        // an increment racing with the removal is lost, which is fine for a ranking signal
+        Map<String, Long> counts = new HashMap<>();
+        for (String name : pendingCounts.keySet()) {
+            LongAdder adder = pendingCounts.remove(name);
+            if (adder != null) {
+                counts.put(name, adder.sum());
+            }
+        }
+
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                counts.forEach((name, count) -> redis.zIncrBy(DEMAND_KEY, count, name));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to flush product demand counts: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.demand.decay-interval-ms:3600000}")
+    public void decay() {
+        try {
+            stringRedisTemplate.opsForZSet().unionAndStore(DEMAND_KEY, List.of(), DEMAND_KEY, Aggregate.SUM,
+                    Weights.of(0.5));
+            stringRedisTemplate.opsForZSet().removeRangeByScore(DEMAND_KEY, 0, 0.5);
+        } catch (Exception e) {
+            log.warn("Failed to decay product demand counts: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.gadgetmart.product.service;
+
+import com.gadgetmart.product.event.ProductChangedEvent;
+import com.gadgetmart.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read side of a full catalog export, used by search-service to rebuild its index.
+ * The catalog is split into contiguous _id ranges that can be scanned in parallel, and each
+ * range is read with keyset pagination on _id so every page is an index seek, not a skip.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductExportService {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Partition {
+        private String fromId; // inclusive
+        private String toId;   // exclusive; null for the last partition
+        private long count;
+    }
+
+    /**
+     * Splits the collection into roughly equal, contiguous _id ranges with $bucketAuto. It sorts
+     * every _id in the catalog, which goes past the 100MB stage memory limit on a large one, so
+     * the stage may spill to disk.
+     */
+    public List<Partition> partitions(int count) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                        Aggregation.bucketAuto("_id", count).andOutputCount().as("count"))
+                .withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+        List<Partition> partitions = new ArrayList<>(count);
+        for (Document bucket : mongoTemplate.aggregate(aggregation, Product.class, Document.class)) {
+            Document bounds = bucket.get("_id", Document.class);
+            partitions.add(new Partition(bounds.get("min").toString(), null,
+                    ((Number) bucket.get("count")).longValue()));
+        }
+        for (int i = 0; i < partitions.size() - 1; i++) {
+            partitions.get(i).setToId(partitions.get(i + 1).getFromId());
+        }
+        return partitions;
+    }
+
+    /**
+     * Next page of a partition: ids after {@code after} (or from {@code fromId} on the first
+     * page) and before {@code toId}, in _id order, with only the fields the index needs.
+     */
+    public List<ProductChangedEvent> page(String fromId, String toId, String after, int limit) {
+        Criteria criteria = after != null
+                ? Criteria.where("_id").gt(after)
+                : Criteria.where("_id").gte(fromId);
+        if (toId != null) {
+            criteria = criteria.lt(toId);
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by("_id"))
+                .limit(limit);
+        query.fields().include("name", "description", "category", "brand", "priceSummary");
+
+        return mongoTemplate.find(query, Product.class).stream()
+                .map(ProductChangedEvent::from)
+                .toList();
+    }
+}
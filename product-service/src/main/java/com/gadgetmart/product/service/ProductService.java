@@ -1,161 +1,553 @@
 package com.gadgetmart.product.service;
 
-import com.gadgetmart.product.apify.ApifyService;
-import com.gadgetmart.product.connector.PriceFetcher;
+import com.gadgetmart.product.cache.ProductCache;
+import com.gadgetmart.product.cache.RefreshLease;
+import com.gadgetmart.product.config.PriceFetchProperties;
+import com.gadgetmart.product.event.ProductChangePublisher;
 import com.gadgetmart.product.model.Product;
 import com.gadgetmart.product.model.Product.PlatformPrice;
 import com.gadgetmart.product.repository.ProductRepository;
+import com.gadgetmart.product.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
-import java.util.concurrent.TimeUnit;
-import org.springframework.data.redis.core.RedisTemplate;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @Slf4j
 public class ProductService {
 
     private final ProductRepository productRepository;
-    private final ApifyService apifyService;
-    private final List<PriceFetcher> priceFetchers;
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final com.gadgetmart.product.client.SearchClient searchClient;
-
-    public ProductService(ProductRepository productRepository, ApifyService apifyService,
-            List<PriceFetcher> priceFetchers, RedisTemplate<String, Object> redisTemplate,
-            com.gadgetmart.product.client.SearchClient searchClient) {
+    private final PriceAggregator priceAggregator;
+    private final PriceFetchProperties priceFetchProperties;
+    private final ProductCache productCache;
+    private final RefreshLease refreshLease;
+    private final ThreadPoolTaskExecutor priceRefreshExecutor;
+    private final ProductDemandTracker demandTracker;
+    private final ProductChangePublisher changePublisher;
+    private final PriceHistoryService priceHistoryService;
+    private final Duration softTtl;
+    private final Duration hardTtl;
+
+    public ProductService(ProductRepository productRepository, PriceAggregator priceAggregator,
+            PriceFetchProperties priceFetchProperties, ProductCache productCache,
+            RefreshLease refreshLease, ThreadPoolTaskExecutor priceRefreshExecutor,
+            ProductDemandTracker demandTracker,
+            ProductChangePublisher changePublisher, PriceHistoryService priceHistoryService,
+            @Value("${product.refresh.soft-ttl-minutes:60}") long softTtlMinutes,
+            @Value("${product.refresh.hard-ttl-minutes:1440}") long hardTtlMinutes) {
         this.productRepository = productRepository;
-        this.apifyService = apifyService;
-        this.priceFetchers = priceFetchers;
-        this.redisTemplate = redisTemplate;
-        this.searchClient = searchClient;
-        log.info("ProductService initialized with {} price fetchers", priceFetchers.size());
+        this.priceAggregator = priceAggregator;
+        this.priceFetchProperties = priceFetchProperties;
+        this.productCache = productCache;
+        this.refreshLease = refreshLease;
+        this.priceRefreshExecutor = priceRefreshExecutor;
+        this.demandTracker = demandTracker;
+        this.changePublisher = changePublisher;
+        this.priceHistoryService = priceHistoryService;
+        this.softTtl = Duration.ofMinutes(softTtlMinutes);
+        this.hardTtl = Duration.ofMinutes(hardTtlMinutes);
     }
 
     private static final String PRODUCT_CACHE_PREFIX = "product:";
+    private static final long PEER_REFRESH_POLL_MS = 100;
+
+    // Concurrent misses for the same product on this replica share one load
+    private final SingleFlight<String, Product> refreshFlights = new SingleFlight<>();
+
+    // Products with a stale-while-revalidate refresh queued or running on this replica
+    private final Set<String> backgroundRefreshes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * FRESH: younger than the soft TTL. STALE: between soft and hard TTL, served as-is while a
+     * background refresh runs. EXPIRED: older than the hard TTL (or never priced), caller waits.
+     */
+    private enum Freshness {
+        FRESH, STALE, EXPIRED
+    }
 
     public Product getProductWithPrices(String productName) {
+        Product product = resolveProduct(productName);
+        demandTracker.recordRequest(product.getName());
+        return product;
+    }
+
+    /**
+     * Resolves many products at once: one cache MGET, one Mongo $in query for the misses and
+     * one shared connector fan-out for whatever still needs pricing. Results keep the request
+     * order; duplicate names (case-insensitive) resolve to the same product.
+     */
+    public List<Product> getProductsWithPrices(List<String> productNames) {
+        Map<String, String> namesByKey = new LinkedHashMap<>();
+        productNames.forEach(name -> namesByKey.putIfAbsent(PRODUCT_CACHE_PREFIX + name.toLowerCase(), name));
+
+        // 1. Local + Redis cache in one round trip
+        Map<String, Product> resolved = new HashMap<>();
+        productCache.getAll(namesByKey.keySet()).forEach((key, product) -> {
+            Freshness freshness = freshnessOf(product);
+            if (freshness != Freshness.EXPIRED) {
+                if (freshness == Freshness.STALE) {
+                    refreshInBackground(namesByKey.get(key), key);
+                }
+                resolved.put(key, product);
+            }
+        });
+
+        // 2. MongoDB for the misses in one $in query
+        Map<String, Product> stored = new HashMap<>();
+        List<String> missedNames = namesByKey.entrySet().stream()
+                .filter(entry -> !resolved.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        if (!missedNames.isEmpty()) {
+            productRepository.findByNameIn(missedNames)
+                    .forEach(product -> stored.put(PRODUCT_CACHE_PREFIX + product.getName().toLowerCase(), product));
+        }
+
+        Map<String, Product> toCache = new HashMap<>();
+        Map<String, String> toRefresh = new LinkedHashMap<>();
+        for (String name : missedNames) {
+            String key = PRODUCT_CACHE_PREFIX + name.toLowerCase();
+            Product existing = stored.get(key);
+            Freshness freshness = existing == null ? Freshness.EXPIRED : freshnessOf(existing);
+            if (freshness == Freshness.EXPIRED) {
+                toRefresh.put(key, name);
+                continue;
+            }
+            if (freshness == Freshness.STALE) {
+                refreshInBackground(name, key);
+            }
+            resolved.put(key, existing);
+            toCache.put(key, existing);
+        }
+        if (!toCache.isEmpty()) {
+            productCache.putAll(toCache, hardTtl);
+        }
+
+        // 3. One fan-out for everything this replica holds the lease for; wait on peers for the rest
+        if (!toRefresh.isEmpty()) {
+            resolved.putAll(refreshMissing(toRefresh, stored));
+        }
+
+        List<Product> products = new ArrayList<>(namesByKey.size());
+        namesByKey.keySet().forEach(key -> {
+            Product product = resolved.get(key);
+            if (product != null) {
+                products.add(product);
+                demandTracker.recordRequest(product.getName());
+            }
+        });
+        return products;
+    }
+
+    /**
+     * Loads products into both cache tiers from Redis or MongoDB only; nothing is priced, so
+     * warming never calls the connectors. Products not stored yet are left to the first request.
+     *
+     * @return how many of the names are now cached
+     */
+    public int warmCache(List<String> productNames) {
+        Map<String, String> namesByKey = new LinkedHashMap<>();
+        productNames.forEach(name -> namesByKey.putIfAbsent(PRODUCT_CACHE_PREFIX + name.toLowerCase(), name));
+
+        // Hits are copied into the local tier by getAll itself
+        Map<String, Product> cached = productCache.getAll(namesByKey.keySet());
+        List<String> missedNames = namesByKey.entrySet().stream()
+                .filter(entry -> !cached.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        if (missedNames.isEmpty()) {
+            return cached.size();
+        }
+
+        Map<String, Product> stored = new HashMap<>();
+        productRepository.findByNameIn(missedNames)
+                .forEach(product -> stored.put(PRODUCT_CACHE_PREFIX + product.getName().toLowerCase(), product));
+        if (!stored.isEmpty()) {
+            productCache.putAll(stored, hardTtl);
+        }
+        return cached.size() + stored.size();
+    }
+
+    /**
+     * Unconditionally re-fetches prices for a product, unless another replica is already
+     * refreshing it. Used by the background scheduler to refresh hot products ahead of expiry.
+     *
+     * @return true if this call performed the refresh
+     */
+    public boolean refreshProduct(String productName) {
         String cacheKey = PRODUCT_CACHE_PREFIX + productName.toLowerCase();
+        Optional<String> lease = refreshLease.tryAcquire(cacheKey);
+        if (lease.isEmpty()) {
+            return false;
+        }
+        try {
+            refreshPrices(productName, cacheKey, productRepository.findByName(productName).orElse(null));
+            return true;
+        } finally {
+            refreshLease.release(cacheKey, lease.get());
+        }
+    }
 
-        // 1. Check Redis Cache
+    /**
+     * Merges prices from a source that finished after the fan-out had moved on, replacing the
+     * product's entries for the same platforms. Runs on the refresh pool, off the HTTP callback.
+     */
+    @EventListener
+    public void onLatePrices(LatePrices latePrices) {
         try {
-            Product cachedProduct = (Product) redisTemplate.opsForValue().get(cacheKey);
-            if (cachedProduct != null) {
-                log.info("Returning Redis cached prices for {}", productName);
+            priceRefreshExecutor.execute(() -> latePrices.pricesByName().forEach((name, prices) -> {
+                try {
+                    mergeLatePrices(name, prices);
+                } catch (Exception e) {
+                    log.error("Failed to merge late {} prices for {}: {}", latePrices.platform(), name, e.getMessage());
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            log.warn("Background refresh pool saturated, dropping late {} prices", latePrices.platform());
+        }
+    }
+
+    /**
+     * Read-only: the product comes from the cache or Mongo as-is, so reading history never
+     * starts a price refresh. Empty when the product has never been fetched.
+     */
+    public Optional<PriceHistory> getPriceHistory(String productName, int days, PriceHistory.Resolution resolution,
+            String platform) {
+        Product product = productCache.get(PRODUCT_CACHE_PREFIX + productName.toLowerCase());
+        if (product == null) {
+            product = productRepository.findByName(productName).orElse(null);
+        }
+        if (product == null) {
+            return Optional.empty();
+        }
+        return Optional.of(priceHistoryService.history(product, days, resolution, platform));
+    }
+
+    public Duration getSoftTtl() {
+        return softTtl;
+    }
+
+    private Product resolveProduct(String productName) {
+        String cacheKey = PRODUCT_CACHE_PREFIX + productName.toLowerCase();
+
+        // 1. Check local + Redis cache
+        Product cachedProduct = productCache.get(cacheKey);
+        if (cachedProduct != null) {
+            Freshness freshness = freshnessOf(cachedProduct);
+            if (freshness != Freshness.EXPIRED) {
+                if (freshness == Freshness.STALE) {
+                    refreshInBackground(productName, cacheKey);
+                }
+                log.debug("Returning cached prices for {} ({})", productName, freshness);
                 return cachedProduct;
             }
-        } catch (Exception e) {
-            log.warn("Redis error: {}", e.getMessage());
         }
 
+        return refreshFlights.execute(cacheKey, () -> loadOrRefresh(productName, cacheKey));
+    }
+
+    private Product loadOrRefresh(String productName, String cacheKey) {
         log.info("Fetching prices for product: {}", productName);
 
         Product existingProduct = productRepository.findByName(productName).orElse(null);
-        if (existingProduct != null && isPriceFresh(existingProduct)) {
-            log.info("Returning MongoDB cached prices for {}", productName);
+        Freshness freshness = existingProduct == null ? Freshness.EXPIRED : freshnessOf(existingProduct);
+        if (freshness != Freshness.EXPIRED) {
+            log.info("Returning MongoDB cached prices for {} ({})", productName, freshness);
             cacheProduct(cacheKey, existingProduct);
+            if (freshness == Freshness.STALE) {
+                refreshInBackground(productName, cacheKey);
+            }
             return existingProduct;
         }
 
+        // 2. Only one replica refreshes a product at a time; the others wait for its result
+        Optional<String> lease = refreshLease.tryAcquire(cacheKey);
+        if (lease.isEmpty()) {
+            Product refreshedByPeer = awaitPeerRefresh(cacheKey);
+            if (refreshedByPeer != null) {
+                log.info("Returning prices for {} refreshed by another replica", productName);
+                return refreshedByPeer;
+            }
+            if (existingProduct != null) {
+                log.warn("Peer refresh for {} did not finish in time, serving stale prices", productName);
+                return existingProduct;
+            }
+            log.warn("Peer refresh for {} did not finish in time, refreshing locally", productName);
+            return refreshPrices(productName, cacheKey, null);
+        }
+
+        try {
+            return refreshPrices(productName, cacheKey, existingProduct);
+        } finally {
+            refreshLease.release(cacheKey, lease.get());
+        }
+    }
+
+    /**
+     * Queues at most one refresh per product on this replica; the Redis lease extends that
+     * to one per product across replicas. If the pool is saturated the refresh is simply
+     * skipped and retried by the next request that sees the stale entry.
+     */
+    private void refreshInBackground(String productName, String cacheKey) {
+        if (!backgroundRefreshes.add(cacheKey)) {
+            return;
+        }
+        try {
+            priceRefreshExecutor.execute(() -> {
+                try {
+                    refreshIfLeaseAvailable(productName, cacheKey);
+                } catch (Exception e) {
+                    log.error("Background price refresh failed for {}: {}", productName, e.getMessage());
+                } finally {
+                    backgroundRefreshes.remove(cacheKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            backgroundRefreshes.remove(cacheKey);
+            log.warn("Background refresh pool saturated, skipping {}", productName);
+        }
+    }
+
+    private void refreshIfLeaseAvailable(String productName, String cacheKey) {
+        Optional<String> lease = refreshLease.tryAcquire(cacheKey);
+        if (lease.isEmpty()) {
+            return; // another replica is already refreshing this product
+        }
+        try {
+            Product existingProduct = productRepository.findByName(productName).orElse(null);
+            if (existingProduct != null && freshnessOf(existingProduct) == Freshness.FRESH) {
+                return;
+            }
+            refreshPrices(productName, cacheKey, existingProduct);
+        } finally {
+            refreshLease.release(cacheKey, lease.get());
+        }
+    }
+
+    private Product refreshPrices(String productName, String cacheKey, Product existingProduct) {
         log.info("Prices stale or missing. Fetching from all platforms...");
-        List<PlatformPrice> latestPrices = fetchPricesFromAllPlatforms(productName);
+        PriceFetchResult fetchResult = fetchPricesFromAllPlatforms(productName);
 
         if (existingProduct == null) {
             existingProduct = Product.builder()
                     .name(productName)
                     .category("Electronics")
                     .brand("Unknown")
-                    .prices(latestPrices)
+                    .prices(fetchResult.getPrices())
+                    .pricesPartial(fetchResult.isPartial())
                     .lastUpdated(LocalDateTime.now())
                     .build();
         } else {
-            existingProduct.setPrices(latestPrices);
+            existingProduct.setPrices(fetchResult.getPrices());
+            existingProduct.setPricesPartial(fetchResult.isPartial());
             existingProduct.setLastUpdated(LocalDateTime.now());
         }
 
         Product savedProduct = productRepository.save(existingProduct);
+        priceHistoryService.record(savedProduct);
         cacheProduct(cacheKey, savedProduct);
-        indexProductInElasticsearch(savedProduct);
+        changePublisher.publish(savedProduct);
+        changePublisher.publishPriceUpdate(savedProduct);
         return savedProduct;
     }
 
-    private void indexProductInElasticsearch(Product product) {
-        try {
-            double minPrice = product.getPrices().stream()
-                    .mapToDouble(p -> p.getPrice().doubleValue())
-                    .min()
-                    .orElse(0.0);
-
-            com.gadgetmart.product.client.SearchClient.ProductIndexDto dto = com.gadgetmart.product.client.SearchClient.ProductIndexDto
-                    .builder()
-                    .id(product.getId())
-                    .name(product.getName())
-                    .description(product.getDescription())
-                    .category(product.getCategory())
-                    .brand(product.getBrand())
-                    .minPrice(minPrice)
-                    .build();
-
-            searchClient.indexProduct(dto);
-            log.info("Product {} indexed in Elasticsearch", product.getName());
-        } catch (Exception e) {
-            log.warn("Failed to index product in Elasticsearch: {}", e.getMessage());
+    private void mergeLatePrices(String productName, List<PlatformPrice> latePrices) {
+        if (latePrices.isEmpty()) {
+            return;
         }
+        Product product = productRepository.findByName(productName).orElse(null);
+        if (product == null) {
+            return;
+        }
+        Set<String> platforms = latePrices.stream().map(PlatformPrice::getPlatformName).collect(Collectors.toSet());
+        List<PlatformPrice> merged = new ArrayList<>(latePrices);
+        if (product.getPrices() != null) {
+            product.getPrices().stream()
+                    .filter(price -> !platforms.contains(price.getPlatformName()))
+                    .forEach(merged::add);
+        }
+        // lastUpdated and pricesPartial stay as they were: the other platforms' prices are no newer
+        product.setPrices(merged);
+
+        Product savedProduct = productRepository.save(product);
+        // The other platforms' prices were recorded with the refresh they came from
+        priceHistoryService.recordPrices(savedProduct.getName(), latePrices);
+        cacheProduct(PRODUCT_CACHE_PREFIX + productName.toLowerCase(), savedProduct);
+        changePublisher.publish(savedProduct);
+        changePublisher.publishPriceUpdate(savedProduct);
+        log.info("Merged {} late prices into {}", latePrices.size(), productName);
     }
 
-    private void cacheProduct(String key, Product product) {
+    private Map<String, Product> refreshMissing(Map<String, String> namesByKey, Map<String, Product> stored) {
+        Map<String, String> leases = new HashMap<>();
+        List<String> heldByPeers = new ArrayList<>();
+        namesByKey.keySet().forEach(key -> refreshLease.tryAcquire(key)
+                .ifPresentOrElse(token -> leases.put(key, token), () -> heldByPeers.add(key)));
+
+        Map<String, Product> refreshed = new HashMap<>();
         try {
-            redisTemplate.opsForValue().set(key, product, 1, TimeUnit.HOURS);
-        } catch (Exception e) {
-            log.warn("Failed to cache in Redis: {}", e.getMessage());
+            if (!leases.isEmpty()) {
+                Map<String, String> owned = new LinkedHashMap<>();
+                leases.keySet().forEach(key -> owned.put(key, namesByKey.get(key)));
+                refreshed.putAll(refreshPricesBatch(owned, stored));
+            }
+        } finally {
+            leases.forEach(refreshLease::release);
+        }
+
+        if (!heldByPeers.isEmpty()) {
+            Map<String, Product> fromPeers = awaitPeerRefreshAll(heldByPeers);
+            refreshed.putAll(fromPeers);
+            Map<String, String> unfinished = new LinkedHashMap<>();
+            for (String key : heldByPeers) {
+                if (fromPeers.containsKey(key)) {
+                    continue;
+                }
+                if (stored.containsKey(key)) {
+                    refreshed.put(key, stored.get(key));
+                } else {
+                    unfinished.put(key, namesByKey.get(key));
+                }
+            }
+            if (!unfinished.isEmpty()) {
+                log.warn("Peer refresh for {} products did not finish in time, refreshing locally", unfinished.size());
+                refreshed.putAll(refreshPricesBatch(unfinished, stored));
+            }
         }
+        return refreshed;
     }
 
-    private List<PlatformPrice> fetchPricesFromAllPlatforms(String productName) {
-        List<PlatformPrice> prices = new ArrayList<>();
+    private Map<String, Product> refreshPricesBatch(Map<String, String> namesByKey, Map<String, Product> stored) {
+        log.info("Prices stale or missing for {} products. Fetching from all platforms...", namesByKey.size());
+        Map<String, PriceFetchResult> fetchResults = fetchPricesFromAllPlatforms(namesByKey.values());
 
-        // 1. Try fetching from Apify (Real Data)
-        try {
-            List<PlatformPrice> apifyPrices = apifyService.fetchPricesFromApify(productName);
-            if (!apifyPrices.isEmpty()) {
-                prices.addAll(apifyPrices);
-                log.info("Successfully fetched {} prices from Apify", apifyPrices.size());
+        List<Product> toSave = new ArrayList<>(namesByKey.size());
+        namesByKey.forEach((key, name) -> {
+            PriceFetchResult fetchResult = fetchResults.get(name);
+            Product product = stored.get(key);
+            if (product == null) {
+                product = Product.builder()
+                        .name(name)
+                        .category("Electronics")
+                        .brand("Unknown")
+                        .build();
             }
-        } catch (Exception e) {
-            log.error("Failed to fetch from Apify: {}", e.getMessage());
+            product.setPrices(fetchResult.getPrices());
+            product.setPricesPartial(fetchResult.isPartial());
+            product.setLastUpdated(LocalDateTime.now());
+            toSave.add(product);
+        });
+
+        Map<String, Product> saved = new HashMap<>();
+        productRepository.saveAll(toSave)
+                .forEach(product -> saved.put(PRODUCT_CACHE_PREFIX + product.getName().toLowerCase(), product));
+        priceHistoryService.recordAll(saved.values());
+        productCache.putAll(saved, hardTtl);
+        saved.values().forEach(product -> {
+            changePublisher.publish(product);
+            changePublisher.publishPriceUpdate(product);
+        });
+        return saved;
+    }
+
+    private Map<String, Product> awaitPeerRefreshAll(List<String> cacheKeys) {
+        Map<String, Product> found = new HashMap<>();
+        long deadline = System.currentTimeMillis() + refreshLease.getLeaseDuration().toMillis();
+        while (found.size() < cacheKeys.size() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(PEER_REFRESH_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            productCache.getAll(cacheKeys.stream().filter(key -> !found.containsKey(key)).toList())
+                    .forEach((key, product) -> {
+                        if (freshnessOf(product) != Freshness.EXPIRED) {
+                            found.put(key, product);
+                        }
+                    });
         }
+        return found;
+    }
 
-        // 2. Fallback/Additional Sources (Mocks: Amazon, Flipkart)
-        for (PriceFetcher fetcher : priceFetchers) {
+    private Product awaitPeerRefresh(String cacheKey) {
+        long deadline = System.currentTimeMillis() + refreshLease.getLeaseDuration().toMillis();
+        while (System.currentTimeMillis() < deadline) {
             try {
-                fetcher.fetchPrice(productName).ifPresent(prices::add);
-            } catch (Exception e) {
-                log.error("Failed to fetch from {}: {}", fetcher.getPlatformName(), e.getMessage());
+                Thread.sleep(PEER_REFRESH_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            // The expired entry that sent us here stays cached until the peer replaces it
+            Product product = productCache.get(cacheKey);
+            if (product != null && freshnessOf(product) != Freshness.EXPIRED) {
+                return product;
             }
         }
+        return null;
+    }
 
-        // 3. Add GadgetMart's own price
-        prices.add(PlatformPrice.builder()
-                .platformName("GadgetMart (Official)")
-                .price(BigDecimal.valueOf(10000 + new Random((long) productName.hashCode()).nextInt(50000)))
-                .currency("INR")
-                .available(true)
-                .fetchedAt(LocalDateTime.now())
-                .build());
+    private void cacheProduct(String key, Product product) {
+        // Kept until the hard TTL so stale entries can still be served while they revalidate
+        productCache.put(key, product, hardTtl);
+    }
 
-        return prices;
+    private PriceFetchResult fetchPricesFromAllPlatforms(String productName) {
+        return fetchPricesFromAllPlatforms(List.of(productName)).get(productName);
     }
 
-    private boolean isPriceFresh(Product product) {
+    private Map<String, PriceFetchResult> fetchPricesFromAllPlatforms(Collection<String> productNames) {
+        // 1. Scatter to Apify and every connector in parallel, each bounded by its own deadline
+        Map<String, PriceFetchResult> results = new HashMap<>();
+        priceAggregator.fetchAll(productNames).forEach((productName, result) -> {
+            List<PlatformPrice> prices = new ArrayList<>(result.getPrices());
+
+            // 2. Add GadgetMart's own price
+            prices.add(PlatformPrice.builder()
+                    .platformName("GadgetMart (Official)")
+                    .price(BigDecimal.valueOf(10000 + new Random((long) productName.hashCode()).nextInt(50000)))
+                    .currency("INR")
+                    .available(true)
+                    .fetchedAt(LocalDateTime.now())
+                    .build());
+
+            results.put(productName, new PriceFetchResult(prices, result.getMissingPlatforms()));
+        });
+        return results;
+    }
+
+    private Freshness freshnessOf(Product product) {
         if (product.getLastUpdated() == null)
-            return false;
-        // Prices are fresh if updated within last 60 minutes
-        return product.getLastUpdated().isAfter(LocalDateTime.now().minusMinutes(60));
+            return Freshness.EXPIRED;
+        // Partial results are revalidated sooner than complete ones
+        Duration soft = product.isPricesPartial()
+                ? Duration.ofMinutes(priceFetchProperties.getPartialTtlMinutes())
+                : softTtl;
+        LocalDateTime now = LocalDateTime.now();
+        if (product.getLastUpdated().isAfter(now.minus(soft)))
+            return Freshness.FRESH;
+        if (product.getLastUpdated().isAfter(now.minus(hardTtl)))
+            return Freshness.STALE;
+        return Freshness.EXPIRED;
     }
 }
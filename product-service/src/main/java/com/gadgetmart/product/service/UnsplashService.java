@@ -8,6 +8,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @Slf4j
@@ -16,9 +17,23 @@ public class UnsplashService {
     @Value("${unsplash.access-key:}")
     private String accessKey;
 
+    public static final String FALLBACK_IMAGE = "https://images.unsplash.com/photo-1519389950473-47ba0277781c?auto=format&fit=crop&q=80&w=800";
+
     private final RestTemplate restTemplate = new RestTemplate();
 
     public String getExactProductImage(String productName) {
+        // Fallback to high-quality tech placeholder if API fails
+        return findExactProductImage(productName).orElse(FALLBACK_IMAGE);
+    }
+
+    /**
+     * @return the image URL, or empty when Unsplash is not configured or did not answer, so
+     * callers caching results can tell a real image from the placeholder
+     */
+    public Optional<String> findExactProductImage(String productName) {
+        if (accessKey == null || accessKey.isBlank()) {
+            return Optional.empty();
+        }
         try {
             String url = UriComponentsBuilder.fromHttpUrl("https://api.unsplash.com/search/photos")
                     .queryParam("query", productName + " product tech")
@@ -33,14 +48,13 @@ public class UnsplashService {
                 if (!results.isEmpty()) {
                     Map<String, Object> firstResult = (Map<String, Object>) results.get(0);
                     Map<String, String> urls = (Map<String, String>) firstResult.get("urls");
-                    return urls.get("regular");
+                    return Optional.ofNullable(urls.get("regular"));
                 }
             }
         } catch (Exception e) {
             log.error("Failed to fetch image from Unsplash for {}: {}", productName, e.getMessage());
         }
 
-        // Fallback to high-quality tech placeholder if API fails
-        return "https://images.unsplash.com/photo-1519389950473-47ba0277781c?auto=format&fit=crop&q=80&w=800";
+        return Optional.empty();
     }
 }
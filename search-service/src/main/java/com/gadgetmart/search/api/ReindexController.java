@@ -0,0 +1,31 @@
+package com.gadgetmart.search.api;
+
+import com.gadgetmart.search.indexing.ReindexJob;
+import com.gadgetmart.search.indexing.ReindexStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Admin trigger and progress for a full index rebuild. The api-gateway's deny-internal route
+ * answers 403 for /internal/** on every service, so this is reachable only inside the network.
+ */
+@RestController
+@RequestMapping("/internal/search/reindex")
+@RequiredArgsConstructor
+public class ReindexController {
+
+    private final ReindexJob reindexJob;
+
+    @PostMapping
+    public ResponseEntity<ReindexStatus> start() {
+        HttpStatus status = reindexJob.start() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(reindexJob.status());
+    }
+
+    @GetMapping
+    public ReindexStatus status() {
+        return reindexJob.status();
+    }
+}
@@ -1,7 +1,11 @@
 package com.gadgetmart.search.api;
 
 import com.gadgetmart.search.model.ProductIndex;
+import com.gadgetmart.search.model.ProductSearchRequest;
+import com.gadgetmart.search.model.ProductSearchResult;
 import com.gadgetmart.search.service.SearchService;
+import com.gadgetmart.search.service.SuggestService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,12 +17,23 @@ import java.util.List;
 public class SearchController {
 
     private final SearchService searchService;
+    private final SuggestService suggestService;
 
     @GetMapping
     public List<ProductIndex> search(@RequestParam String q) {
         return searchService.searchProducts(q);
     }
 
+    @GetMapping("/products")
+    public ProductSearchResult searchProducts(@Valid ProductSearchRequest request) {
+        return searchService.search(request);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String q, @RequestParam(defaultValue = "8") int size) {
+        return suggestService.suggest(q, size);
+    }
+
     @PostMapping("/index")
     public void index(@RequestBody ProductIndex product) {
         searchService.indexProduct(product);
@@ -0,0 +1,127 @@
+package com.gadgetmart.search.backend;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.gadgetmart.search.model.ProductIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@Slf4j
+public class ElasticsearchSearchBackend implements SearchBackend {
+
+    /**
+     * Points at the index a reindex job is rebuilding. It lives in Elasticsearch rather than in
+     * the job's JVM because product.changed partitions are spread over every replica, and each
+     * of them must write its live changes there too.
+     */
+    public static final String REINDEX_ALIAS = "products_reindex";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+
+    public ElasticsearchSearchBackend(ElasticsearchOperations elasticsearchOperations,
+            ElasticsearchClient elasticsearchClient) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+    }
+
+    @Override
+    public String name() {
+        return "elasticsearch";
+    }
+
+    /**
+     * Creates the products index if neither it nor the alias exists yet. Done here rather than
+     * by the repository so the service still starts (and serves from Lucene) while ES is down.
+     */
+    public void ensureIndex() {
+        try {
+            IndexOperations indexOps = elasticsearchOperations.indexOps(ProductIndex.class);
+            if (!indexOps.exists()) {
+                indexOps.createWithMapping();
+                log.info("Created Elasticsearch index {}", indexOps.getIndexCoordinates().getIndexName());
+            } else {
+                // New fields are additive, so an existing index takes them without a reindex
+                indexOps.putMapping();
+            }
+        } catch (Exception e) {
+            log.warn("Could not verify Elasticsearch index: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public List<ProductIndex> search(String query, int limit) {
+        NativeQuery nativeQuery = NativeQuery.builder()
+                .withQuery(q -> q
+                        .multiMatch(m -> m
+                                .fields("name", "description")
+                                .query(query)
+                                .fuzziness("AUTO")
+                        )
+                )
+                .withPageable(PageRequest.of(0, limit))
+                .build();
+
+        return elasticsearchOperations.search(nativeQuery, ProductIndex.class).getSearchHits().stream()
+                .map(SearchHit::getContent)
+                .toList();
+    }
+
+    @Override
+    public void index(Collection<ProductIndex> documents) {
+        List<IndexQuery> queries = new ArrayList<>(documents.size());
+        documents.forEach(document -> queries.add(new IndexQueryBuilder()
+                .withId(document.getId())
+                .withObject(document)
+                .build()));
+        elasticsearchOperations.bulkIndex(queries, ProductIndex.class);
+        // Looked up on every flush, not cached: a change consumed after the job created the
+        // alias must reach the new index, since the scan may have read the product before it
+        for (String shadow : shadowIndices()) {
+            elasticsearchOperations.bulkIndex(queries, IndexCoordinates.of(shadow));
+        }
+    }
+
+    /**
+     * Makes every replica write live changes into the given index as well, until stopped.
+     */
+    public void startShadowWrites(IndexCoordinates index) {
+        elasticsearchOperations.indexOps(index).alias(new AliasActions(new AliasAction.Add(
+                AliasActionParameters.builder().withIndices(index.getIndexName()).withAliases(REINDEX_ALIAS).build())));
+    }
+
+    public void stopShadowWrites(IndexCoordinates index) {
+        elasticsearchOperations.indexOps(index).alias(new AliasActions(new AliasAction.Remove(
+                AliasActionParameters.builder().withIndices(index.getIndexName()).withAliases(REINDEX_ALIAS).build())));
+    }
+
+    private Set<String> shadowIndices() {
+        try {
+            if (!elasticsearchClient.indices().existsAlias(e -> e.name(REINDEX_ALIAS)).value()) {
+                return Set.of();
+            }
+            return elasticsearchClient.indices().getAlias(g -> g.name(REINDEX_ALIAS)).result().keySet();
+        } catch (IOException e) {
+            // Fails the flush; BulkIndexer retries the batch, so no shadow write is skipped
+            throw new UncheckedIOException(e);
+        }
+    }
+}
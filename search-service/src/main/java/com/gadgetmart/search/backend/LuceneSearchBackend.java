@@ -0,0 +1,229 @@
+package com.gadgetmart.search.backend;
+
+import com.gadgetmart.search.model.ProductIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Embedded Lucene index on local disk, memory-mapped so the OS page cache rather than the
+ * heap holds it. Reproduces the Elasticsearch query: every query term is matched fuzzily
+ * (AUTO edit distance) against name and description, best field wins, terms are OR-ed.
+ * <p>
+ * Writes become searchable once the searcher is refreshed after each batch; commits to disk
+ * happen on a timer, and the index survives restarts. Live changes go through {@link #index};
+ * reindex and bootstrap pages go through {@link #indexMissing}, so a page read before a change
+ * never overwrites it.
+ */
+@Component
+@ConditionalOnExpression("'${search.backend.primary:elasticsearch}' == 'lucene' or ${search.backend.lucene.enabled:false}")
+@Slf4j
+public class LuceneSearchBackend implements SearchBackend {
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final MMapDirectory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    // Makes the existence check in indexMissing atomic with respect to index
+    private final Object writeLock = new Object();
+
+    public LuceneSearchBackend(@Value("${search.backend.lucene.path:data/lucene-products}") String path)
+            throws IOException {
+        this.directory = new MMapDirectory(Path.of(path));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+        log.info("Lucene search index at {} holds {} products", path, writer.getDocStats().numDocs);
+    }
+
+    @Override
+    public String name() {
+        return "lucene";
+    }
+
+    @Override
+    public List<ProductIndex> search(String query, int limit) {
+        Query luceneQuery = fuzzyQuery(query);
+        IndexSearcher searcher;
+        try {
+            searcher = searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            List<ProductIndex> results = new ArrayList<>(limit);
+            for (ScoreDoc hit : searcher.search(luceneQuery, limit).scoreDocs) {
+                results.add(toProduct(searcher.storedFields().document(hit.doc)));
+            }
+            return results;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException e) {
+                log.warn("Failed to release Lucene searcher: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void index(Collection<ProductIndex> documents) {
+        synchronized (writeLock) {
+            try {
+                for (ProductIndex product : documents) {
+                    writer.updateDocument(new Term("id", product.getId()), toDocument(product));
+                }
+                searcherManager.maybeRefreshBlocking();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Adds the documents whose id is not in the index yet and keeps the others.
+     *
+     * @return how many were added
+     */
+    public int indexMissing(Collection<ProductIndex> documents) {
+        synchronized (writeLock) {
+            try {
+                IndexSearcher searcher = searcherManager.acquire();
+                int added = 0;
+                try {
+                    for (ProductIndex product : documents) {
+                        Term id = new Term("id", product.getId());
+                        if (searcher.count(new TermQuery(id)) == 0) {
+                            writer.updateDocument(id, toDocument(product));
+                            added++;
+                        }
+                    }
+                } finally {
+                    searcherManager.release(searcher);
+                }
+                searcherManager.maybeRefreshBlocking();
+                return added;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return writer.getDocStats().numDocs == 0;
+    }
+
+    @Scheduled(fixedDelayString = "${search.backend.lucene.commit-interval-ms:10000}")
+    public void commit() {
+        if (!writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.error("Lucene commit failed: {}", e.getMessage());
+        }
+    }
+
+    private Query fuzzyQuery(String text) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : analyze(text)) {
+            int maxEdits = term.length() <= 2 ? 0 : term.length() <= 5 ? 1 : 2;
+            query.add(new DisjunctionMaxQuery(List.of(
+                    new FuzzyQuery(new Term("name", term), maxEdits),
+                    new FuzzyQuery(new Term("description", term), maxEdits)), 0.0f), BooleanClause.Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream("name", text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static Document toDocument(ProductIndex product) {
+        Document document = new Document();
+        document.add(new StringField("id", product.getId(), Field.Store.YES));
+        if (product.getName() != null)
+            document.add(new TextField("name", product.getName(), Field.Store.YES));
+        if (product.getDescription() != null)
+            document.add(new TextField("description", product.getDescription(), Field.Store.YES));
+        if (product.getCategory() != null)
+            document.add(new StringField("category", product.getCategory(), Field.Store.YES));
+        if (product.getBrand() != null)
+            document.add(new StringField("brand", product.getBrand(), Field.Store.YES));
+        if (product.getMinPrice() != null)
+            document.add(new StoredField("minPrice", product.getMinPrice()));
+        if (product.getBestPlatform() != null)
+            document.add(new StoredField("bestPlatform", product.getBestPlatform()));
+        if (product.getDealPercent() != null)
+            document.add(new StoredField("dealPercent", product.getDealPercent()));
+        return document;
+    }
+
+    private static ProductIndex toProduct(Document document) {
+        IndexableField minPrice = document.getField("minPrice");
+        IndexableField dealPercent = document.getField("dealPercent");
+        return ProductIndex.builder()
+                .id(document.get("id"))
+                .name(document.get("name"))
+                .description(document.get("description"))
+                .category(document.get("category"))
+                .brand(document.get("brand"))
+                .minPrice(minPrice == null ? null : minPrice.numericValue().doubleValue())
+                .bestPlatform(document.get("bestPlatform"))
+                .dealPercent(dealPercent == null ? null : dealPercent.numericValue().doubleValue())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        searcherManager.close();
+        writer.close(); // commits pending changes
+        directory.close();
+    }
+}
@@ -0,0 +1,29 @@
+package com.gadgetmart.search.backend;
+
+import com.gadgetmart.search.model.ProductIndex;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A store that can hold the product index and answer the fuzzy name/description search.
+ * Every enabled backend is fed by the same indexing path (BulkIndexer), so any of them can
+ * serve search on its own.
+ */
+public interface SearchBackend {
+
+    /**
+     * Short identifier used in configuration and logs, e.g. "elasticsearch", "lucene".
+     */
+    String name();
+
+    /**
+     * Fuzzy match of the query against name and description, best hits first.
+     */
+    List<ProductIndex> search(String query, int limit);
+
+    /**
+     * Inserts or replaces the given documents by id.
+     */
+    void index(Collection<ProductIndex> documents);
+}
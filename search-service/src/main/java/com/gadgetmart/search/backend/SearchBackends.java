@@ -0,0 +1,75 @@
+package com.gadgetmart.search.backend;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Which backends serve search and which are fed by indexing.
+ * <ul>
+ * <li>search.backend.primary=elasticsearch (default): ES serves search; with
+ * search.backend.lucene.enabled=true a local Lucene index is fed too and serves while ES is down.</li>
+ * <li>search.backend.primary=lucene: search queries go to Lucene. Suggest, /products, reindex and
+ * the index generation check still use ES.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class SearchBackends {
+
+    private final ElasticsearchSearchBackend elasticsearch;
+    private final SearchBackend primary;
+    private final SearchBackend fallback;
+    private final List<SearchBackend> enabled;
+
+    public SearchBackends(ElasticsearchSearchBackend elasticsearch, ObjectProvider<LuceneSearchBackend> lucene,
+            @Value("${search.backend.primary:elasticsearch}") String primaryName) {
+        this.elasticsearch = elasticsearch;
+        LuceneSearchBackend local = lucene.getIfAvailable();
+        if ("lucene".equals(primaryName)) {
+            this.primary = local;
+            this.fallback = null;
+        } else {
+            this.primary = elasticsearch;
+            this.fallback = local;
+        }
+
+        List<SearchBackend> backends = new ArrayList<>(2);
+        backends.add(primary);
+        if (fallback != null) {
+            backends.add(fallback);
+        }
+        this.enabled = Collections.unmodifiableList(backends);
+        log.info("Search backends: primary={}, fallback={}", primary.name(), fallback == null ? "none" : fallback.name());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndices() {
+        if (enabled.contains(elasticsearch)) {
+            elasticsearch.ensureIndex();
+        }
+    }
+
+    public SearchBackend primary() {
+        return primary;
+    }
+
+    public Optional<SearchBackend> fallback() {
+        return Optional.ofNullable(fallback);
+    }
+
+    /**
+     * Every backend that indexing must keep up to date.
+     */
+    public List<SearchBackend> enabled() {
+        return enabled;
+    }
+}
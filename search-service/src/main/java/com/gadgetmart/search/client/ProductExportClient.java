@@ -0,0 +1,29 @@
+package com.gadgetmart.search.client;
+
+import com.gadgetmart.search.model.ProductIndex;
+import lombok.Data;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@FeignClient(name = "product-service", contextId = "productExportClient")
+public interface ProductExportClient {
+
+    @GetMapping("/internal/products/export/partitions")
+    List<Partition> partitions(@RequestParam("count") int count);
+
+    @GetMapping("/internal/products/export")
+    List<ProductIndex> page(@RequestParam("fromId") String fromId,
+            @RequestParam(value = "toId", required = false) String toId,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam("limit") int limit);
+
+    @Data
+    class Partition {
+        private String fromId; // inclusive
+        private String toId;   // exclusive; null for the last partition
+        private long count;
+    }
+}
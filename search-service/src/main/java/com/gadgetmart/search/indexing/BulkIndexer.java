@@ -0,0 +1,97 @@
+package com.gadgetmart.search.indexing;
+
+import com.gadgetmart.search.backend.SearchBackend;
+import com.gadgetmart.search.backend.SearchBackends;
+import com.gadgetmart.search.model.ProductIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Buffers documents and writes them to every enabled search backend in one bulk call once
+ * either the batch size or the flush interval is reached. Writes for the same id inside one
+ * window collapse to the latest, so a burst of refreshes for a product costs a single index
+ * operation.
+ * <p>
+ * A backend that fails keeps its batch and retries it with the next flush, without holding
+ * back the others. The buffer is in memory: a crash can drop the last window, which is
+ * repaired by the product's next change event.
+ */
+@Component
+@Slf4j
+public class BulkIndexer {
+
+    private final SearchBackends searchBackends;
+    private final IndexGeneration indexGeneration;
+    private final int batchSize;
+
+    private final Object bufferLock = new Object();
+    private final Object flushLock = new Object();
+    private Map<String, ProductIndex> buffer = new LinkedHashMap<>();
+
+    // Per backend name, documents whose last write failed; only touched under flushLock
+    private final Map<String, Map<String, ProductIndex>> failed = new HashMap<>();
+
+    public BulkIndexer(SearchBackends searchBackends, IndexGeneration indexGeneration,
+            @Value("${search.indexing.batch-size:500}") int batchSize) {
+        this.searchBackends = searchBackends;
+        this.indexGeneration = indexGeneration;
+        this.batchSize = batchSize;
+    }
+
+    public void add(Collection<ProductIndex> documents) {
+        boolean full;
+        synchronized (bufferLock) {
+            documents.forEach(document -> buffer.put(document.getId(), document));
+            full = buffer.size() >= batchSize;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.indexing.flush-interval-ms:1000}")
+    public void flush() {
+        // One flush at a time, so an older window can never land after a newer one
+        synchronized (flushLock) {
+            Map<String, ProductIndex> batch;
+            synchronized (bufferLock) {
+                if (buffer.isEmpty() && failed.isEmpty()) {
+                    return;
+                }
+                batch = buffer;
+                buffer = new LinkedHashMap<>();
+            }
+
+            for (SearchBackend backend : searchBackends.enabled()) {
+                Map<String, ProductIndex> pending = new LinkedHashMap<>(failed.getOrDefault(backend.name(), Map.of()));
+                pending.putAll(batch);
+                if (pending.isEmpty()) {
+                    continue;
+                }
+                try {
+                    backend.index(pending.values());
+                    failed.remove(backend.name());
+                    log.info("Bulk indexed {} products into {}", pending.size(), backend.name());
+                } catch (Exception e) {
+                    failed.put(backend.name(), pending);
+                    log.error("Bulk index of {} products into {} failed: {}", pending.size(), backend.name(),
+                            e.getMessage());
+                }
+            }
+            indexGeneration.bump();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,57 @@
+package com.gadgetmart.search.indexing;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.stats.IndexStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic counter that changes whenever the product index may have changed. Cached search
+ * results are keyed by it, so bumping it invalidates every cached entry at once.
+ * <p>
+ * Writes made by this replica bump it directly. Writes made by other replicas, and refreshes
+ * that make earlier writes visible, are picked up by polling the index's indexing and refresh
+ * totals.
+ */
+@Component
+@Slf4j
+public class IndexGeneration {
+
+    private static final String INDEX = "products";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long lastObservedOps = -1;
+
+    public IndexGeneration(ElasticsearchClient elasticsearchClient) {
+        this.elasticsearchClient = elasticsearchClient;
+    }
+
+    public long current() {
+        return generation.get();
+    }
+
+    public void bump() {
+        generation.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${search.result-cache.generation-poll-ms:1000}")
+    public void pollIndexStats() {
+        try {
+            IndexStats primaries = elasticsearchClient.indices()
+                    .stats(s -> s.index(INDEX).metric("indexing", "refresh"))
+                    .all().primaries();
+            long ops = primaries.indexing().indexTotal() + primaries.indexing().deleteTotal()
+                    + primaries.refresh().total();
+            if (ops != lastObservedOps) {
+                lastObservedOps = ops;
+                bump();
+            }
+        } catch (Exception e) {
+            log.debug("Index stats unavailable: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.gadgetmart.search.indexing;
+
+import com.gadgetmart.search.backend.LuceneSearchBackend;
+import com.gadgetmart.search.client.ProductExportClient;
+import com.gadgetmart.search.model.ProductIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fills an empty local Lucene index from the product-service export at startup. The index
+ * lives on each replica's disk, so a new replica or a wiped volume would otherwise only hold
+ * the products changed since it started. Runs on its own thread and retries until
+ * product-service answers; live changes keep flowing in meanwhile and are never overwritten.
+ */
+@Component
+@Slf4j
+public class LuceneBootstrap {
+
+    private final LuceneSearchBackend luceneBackend; // null when Lucene is off
+    private final ProductExportClient productExportClient;
+    private final int pageSize;
+    private final long retryMs;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "lucene-bootstrap"));
+
+    public LuceneBootstrap(ObjectProvider<LuceneSearchBackend> luceneBackend, ProductExportClient productExportClient,
+            @Value("${search.reindex.page-size:1000}") int pageSize,
+            @Value("${search.backend.lucene.bootstrap-retry-ms:30000}") long retryMs) {
+        this.luceneBackend = luceneBackend.getIfAvailable();
+        this.productExportClient = productExportClient;
+        this.pageSize = pageSize;
+        this.retryMs = retryMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrapIfEmpty() {
+        if (luceneBackend == null || !luceneBackend.isEmpty()) {
+            return;
+        }
+        runner.execute(this::run);
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                log.info("Lucene index is empty, loading it from the product export");
+                long added = load();
+                log.info("Lucene bootstrap done: {} products added", added);
+                return;
+            } catch (Exception e) {
+                log.warn("Lucene bootstrap failed, retrying in {} ms: {}", retryMs, e.getMessage());
+            }
+            try {
+                Thread.sleep(retryMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private long load() {
+        long added = 0;
+        for (ProductExportClient.Partition partition : productExportClient.partitions(1)) {
+            String after = null;
+            while (true) {
+                List<ProductIndex> page = productExportClient.page(partition.getFromId(), partition.getToId(), after,
+                        pageSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                added += luceneBackend.indexMissing(page);
+                if (page.size() < pageSize) {
+                    break;
+                }
+                after = page.get(page.size() - 1).getId();
+            }
+        }
+        return added;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+}
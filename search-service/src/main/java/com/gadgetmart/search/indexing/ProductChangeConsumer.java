@@ -0,0 +1,40 @@
+package com.gadgetmart.search.indexing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gadgetmart.search.model.ProductIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductChangeConsumer {
+
+    private final BulkIndexer bulkIndexer;
+    private final ObjectMapper objectMapper;
+
+    // ─────────────────────────────────────────────────────────────────
+    // LISTEN: product.changed → buffer for the next bulk write
+    // ─────────────────────────────────────────────────────────────────
+    @KafkaListener(topics = "product.changed", groupId = "search-service-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleProductChanged(List<String> messages) {
+        List<ProductIndex> documents = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            try {
+                ProductIndex document = objectMapper.readValue(message, ProductIndex.class);
+                if (document.getId() != null) {
+                    documents.add(document);
+                }
+            } catch (Exception e) {
+                log.error("Error processing product.changed event: {}", e.getMessage());
+            }
+        }
+        bulkIndexer.add(documents);
+    }
+}
@@ -0,0 +1,263 @@
+package com.gadgetmart.search.indexing;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.gadgetmart.search.backend.ElasticsearchSearchBackend;
+import com.gadgetmart.search.backend.LuceneSearchBackend;
+import com.gadgetmart.search.client.ProductExportClient;
+import com.gadgetmart.search.model.ProductIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds the product index from product-service into a fresh versioned index
+ * (products_v&lt;timestamp&gt;) and then atomically points the "products" alias at it.
+ * <p>
+ * The catalog is scanned as parallel _id ranges, one writer thread per range, each paging
+ * with a keyset cursor and bulk-writing every page. The new index is loaded with refresh
+ * disabled and no replicas, which are restored before the swap. While the rebuild runs the new
+ * index carries the products_reindex alias, and every replica writes the product.changed
+ * events it consumes to both indices, so nothing changed during it is lost.
+ * <p>
+ * When the local Lucene index is enabled, every scanned page also goes into it, adding the
+ * products it is missing, so a new or wiped Lucene index is filled by the next rebuild.
+ */
+@Component
+@Slf4j
+public class ReindexJob {
+
+    private static final String ALIAS = "products";
+    private static final String VERSIONED_PREFIX = "products_v";
+    // Status of a create-only write whose document already exists
+    private static final int VERSION_CONFLICT = 409;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ProductExportClient productExportClient;
+    private final ElasticsearchSearchBackend elasticsearchBackend;
+    private final LuceneSearchBackend luceneBackend; // null when Lucene is off
+    private final IndexGeneration indexGeneration;
+    private final int threads;
+    private final int pageSize;
+    private final int replicas;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "reindex"));
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong indexed = new AtomicLong();
+    private volatile ReindexStatus.State state = ReindexStatus.State.IDLE;
+    private volatile String index;
+    private volatile long total;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public ReindexJob(ElasticsearchOperations elasticsearchOperations, ElasticsearchClient elasticsearchClient,
+            ProductExportClient productExportClient, ElasticsearchSearchBackend elasticsearchBackend,
+            ObjectProvider<LuceneSearchBackend> luceneBackend, IndexGeneration indexGeneration,
+            @Value("${search.reindex.threads:8}") int threads,
+            @Value("${search.reindex.page-size:1000}") int pageSize,
+            @Value("${search.reindex.replicas:1}") int replicas) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.productExportClient = productExportClient;
+        this.elasticsearchBackend = elasticsearchBackend;
+        this.luceneBackend = luceneBackend.getIfAvailable();
+        this.indexGeneration = indexGeneration;
+        this.threads = threads;
+        this.pageSize = pageSize;
+        this.replicas = replicas;
+    }
+
+    /**
+     * Starts a rebuild in the background.
+     *
+     * @return false if one is already running
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        indexed.set(0);
+        total = 0;
+        error = null;
+        finishedAt = null;
+        startedAt = Instant.now();
+        index = VERSIONED_PREFIX + startedAt.toEpochMilli();
+        state = ReindexStatus.State.RUNNING;
+        runner.execute(this::run);
+        return true;
+    }
+
+    public ReindexStatus status() {
+        long done = indexed.get();
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = startedAt == null ? 0 : Math.max(1, Duration.between(startedAt, end).toMillis()) / 1000.0;
+        return ReindexStatus.builder()
+                .state(state)
+                .index(index)
+                .total(total)
+                .indexed(done)
+                .percentComplete(total == 0 ? 0 : Math.min(100.0, done * 100.0 / total))
+                .docsPerSecond(seconds == 0 ? 0 : done / seconds)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .build();
+    }
+
+    private void run() {
+        IndexCoordinates target = IndexCoordinates.of(index);
+        ExecutorService writers = Executors.newFixedThreadPool(threads, r -> new Thread(r, "reindex-writer"));
+        try {
+            createIndex(target);
+            elasticsearchBackend.startShadowWrites(target);
+
+            List<ProductExportClient.Partition> partitions = productExportClient.partitions(threads);
+            total = partitions.stream().mapToLong(ProductExportClient.Partition::getCount).sum();
+            log.info("Reindexing {} products into {} across {} partitions", total, index, partitions.size());
+
+            List<CompletableFuture<Void>> scans = new ArrayList<>(partitions.size());
+            partitions.forEach(partition -> scans.add(
+                    CompletableFuture.runAsync(() -> scan(partition, target), writers)));
+            CompletableFuture.allOf(scans.toArray(CompletableFuture[]::new)).join();
+
+            state = ReindexStatus.State.SWAPPING;
+            elasticsearchClient.indices().putSettings(s -> s
+                    .index(index)
+                    .settings(settings -> settings
+                            .refreshInterval(t -> t.time("1s"))
+                            .numberOfReplicas(String.valueOf(replicas))));
+            elasticsearchOperations.indexOps(target).refresh();
+            swapAlias();
+            stopShadowWrites(target);
+            indexGeneration.bump();
+
+            state = ReindexStatus.State.COMPLETED;
+            log.info("Reindex into {} completed: {} products at {} docs/s", index, indexed.get(),
+                    Math.round(status().getDocsPerSecond()));
+        } catch (Exception e) {
+            state = ReindexStatus.State.FAILED;
+            error = e.getMessage();
+            log.error("Reindex into {} failed: {}", index, e.getMessage());
+            stopShadowWrites(target);
+            try {
+                elasticsearchOperations.indexOps(target).delete();
+            } catch (Exception cleanup) {
+                log.warn("Failed to delete partial index {}: {}", index, cleanup.getMessage());
+            }
+        } finally {
+            writers.shutdownNow();
+            finishedAt = Instant.now();
+            running.set(false);
+        }
+    }
+
+    private void stopShadowWrites(IndexCoordinates target) {
+        try {
+            elasticsearchBackend.stopShadowWrites(target);
+        } catch (Exception e) {
+            log.warn("Failed to remove the reindex alias from {}: {}", target.getIndexName(), e.getMessage());
+        }
+    }
+
+    private void createIndex(IndexCoordinates target) {
+        IndexOperations indexOps = elasticsearchOperations.indexOps(target);
+        // Refresh and replication are switched back on once the bulk load is done
+        indexOps.create(Map.of(
+                        "index.refresh_interval", "-1",
+                        "index.number_of_replicas", 0),
+                indexOps.createMapping(ProductIndex.class));
+    }
+
+    private void scan(ProductExportClient.Partition partition, IndexCoordinates target) {
+        String after = null;
+        while (true) {
+            List<ProductIndex> page = productExportClient.page(partition.getFromId(), partition.getToId(), after, pageSize);
+            if (page.isEmpty()) {
+                return;
+            }
+
+            // Create-only: live changes are shadow-written into the same index, and a page read
+            // before such a change must not overwrite it when it lands afterwards
+            List<IndexQuery> queries = new ArrayList<>(page.size());
+            page.forEach(document -> queries.add(new IndexQueryBuilder()
+                    .withId(document.getId())
+                    .withObject(document)
+                    .withOpType(IndexQuery.OpType.CREATE)
+                    .build()));
+            try {
+                elasticsearchOperations.bulkIndex(queries, target);
+            } catch (BulkFailureException e) {
+                if (e.getFailedDocuments().values().stream()
+                        .anyMatch(failure -> !Integer.valueOf(VERSION_CONFLICT).equals(failure.status()))) {
+                    throw e;
+                }
+                log.debug("{} scanned products already written live, kept the live version", e.getFailedDocuments().size());
+            }
+            if (luceneBackend != null) {
+                luceneBackend.indexMissing(page);
+            }
+            indexed.addAndGet(page.size());
+
+            if (page.size() < pageSize) {
+                return;
+            }
+            after = page.get(page.size() - 1).getId();
+        }
+    }
+
+    /**
+     * Points the alias at the new index in one atomic request. The first run replaces the
+     * concrete "products" index created at startup; later runs move the alias and drop the
+     * previous versioned index.
+     */
+    private void swapAlias() throws IOException {
+        IndexOperations aliasOps = elasticsearchOperations.indexOps(IndexCoordinates.of(ALIAS));
+        boolean isAlias = elasticsearchClient.indices().existsAlias(e -> e.name(ALIAS)).value();
+        Set<String> previous = isAlias ? aliasOps.getAliases(ALIAS).keySet() : Set.of();
+
+        AliasActions actions = new AliasActions(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(index)
+                .withAliases(ALIAS)
+                .build()));
+        if (!isAlias && aliasOps.exists()) {
+            actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder()
+                    .withIndices(ALIAS)
+                    .build()));
+        }
+        previous.forEach(old -> actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder()
+                .withIndices(old)
+                .build())));
+        aliasOps.alias(actions);
+        log.info("Alias {} now points to {}", ALIAS, index);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+}
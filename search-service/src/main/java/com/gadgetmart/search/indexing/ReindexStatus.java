@@ -0,0 +1,28 @@
+package com.gadgetmart.search.indexing;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of the current (or last) full reindex, as reported by the admin endpoint.
+ */
+@Getter
+@Builder
+public class ReindexStatus {
+
+    public enum State {
+        IDLE, RUNNING, SWAPPING, COMPLETED, FAILED
+    }
+
+    private final State state;
+    private final String index;
+    private final long total;
+    private final long indexed;
+    private final double percentComplete;
+    private final double docsPerSecond;
+    private final Instant startedAt;
+    private final Instant finishedAt;
+    private final String error;
+}
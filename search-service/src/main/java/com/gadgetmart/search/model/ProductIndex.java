@@ -5,8 +5,11 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
 
-@Document(indexName = "products")
+// Created by ElasticsearchSearchBackend once the app is up, so startup does not need ES
+@Document(indexName = "products", createIndex = false)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,9 +18,13 @@ import org.springframework.data.elasticsearch.annotations.FieldType;
 public class ProductIndex {
 
     @Id
+    @Field(type = FieldType.Keyword)
     private String id;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    // name.suggest is a search_as_you_type subfield (edge shingles) used only by typeahead
+    @MultiField(
+            mainField = @Field(type = FieldType.Text, analyzer = "standard"),
+            otherFields = @InnerField(suffix = "suggest", type = FieldType.Search_As_You_Type))
     private String name;
 
     @Field(type = FieldType.Text, analyzer = "standard")
@@ -29,6 +36,14 @@ public class ProductIndex {
     @Field(type = FieldType.Keyword)
     private String brand;
 
+    // Best available price, precomputed by product-service
     @Field(type = FieldType.Double)
     private Double minPrice;
+
+    @Field(type = FieldType.Keyword)
+    private String bestPlatform;
+
+    // Percent saved at the best offer versus the priciest one; the BEST_DEAL sort key
+    @Field(type = FieldType.Double)
+    private Double dealPercent;
 }
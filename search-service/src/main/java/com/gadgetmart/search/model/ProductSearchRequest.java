@@ -0,0 +1,33 @@
+package com.gadgetmart.search.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Query parameters of GET /api/search/products. Every filter is optional; an empty request
+ * browses the whole catalog.
+ */
+@Data
+public class ProductSearchRequest {
+
+    public enum Sort {
+        RELEVANCE, PRICE_ASC, PRICE_DESC, BEST_DEAL
+    }
+
+    private String q;
+    private List<String> category;
+    private List<String> brand;
+    private Double minPrice;
+    private Double maxPrice;
+    private Sort sort = Sort.RELEVANCE;
+
+    @Min(1)
+    @Max(100)
+    private int size = 20;
+
+    // Opaque token from the previous page's nextCursor
+    private String cursor;
+}
@@ -0,0 +1,27 @@
+package com.gadgetmart.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+public class ProductSearchResult {
+
+    private final List<ProductIndex> items;
+    private final long total;
+    // Pass back as cursor to get the next page; null on the last page
+    private final String nextCursor;
+    // Facet name ("category", "brand", "price") to its buckets, for the whole result set
+    private final Map<String, List<FacetBucket>> facets;
+
+    @Getter
+    @AllArgsConstructor
+    public static class FacetBucket {
+        private final String key;
+        private final long count;
+    }
+}
@@ -0,0 +1,52 @@
+package com.gadgetmart.search.service;
+
+import com.gadgetmart.search.indexing.IndexGeneration;
+import com.gadgetmart.search.model.ProductSearchResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of search results keyed by the normalized request and the current index
+ * generation. Entries from an older generation are never read again and are evicted by
+ * Caffeine's frequency-based policy, which keeps the head queries resident.
+ */
+@Component
+public class SearchResultCache {
+
+    private record Key(long generation, String request) {
+    }
+
+    private final IndexGeneration indexGeneration;
+    private final Cache<Key, Object> cache;
+
+    public SearchResultCache(IndexGeneration indexGeneration,
+            @Value("${search.result-cache.max-hits:50000}") long maxHits,
+            @Value("${search.result-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.indexGeneration = indexGeneration;
+        // Weighted by number of hits held, so memory stays bounded whatever the page sizes
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxHits)
+                .weigher((Key key, Object value) -> 1 + hitCount(value))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    private static int hitCount(Object value) {
+        if (value instanceof ProductSearchResult result)
+            return result.getItems().size();
+        if (value instanceof List<?> list)
+            return list.size();
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String normalizedRequest, Supplier<T> loader) {
+        return (T) cache.get(new Key(indexGeneration.current(), normalizedRequest), key -> loader.get());
+    }
+}
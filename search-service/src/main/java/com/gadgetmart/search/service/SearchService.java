@@ -1,48 +1,263 @@
 package com.gadgetmart.search.service;
 
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gadgetmart.search.backend.SearchBackend;
+import com.gadgetmart.search.backend.SearchBackends;
+import com.gadgetmart.search.indexing.IndexGeneration;
 import com.gadgetmart.search.model.ProductIndex;
-import com.gadgetmart.search.repository.ProductSearchRepository;
-import lombok.RequiredArgsConstructor;
+import com.gadgetmart.search.model.ProductSearchRequest;
+import com.gadgetmart.search.model.ProductSearchResult;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class SearchService {
 
-    private final ProductSearchRepository productSearchRepository;
+    // Matches what the unpaged Elasticsearch query returned (its default size)
+    private static final int FUZZY_RESULT_SIZE = 10;
+
+    private final SearchBackends searchBackends;
     private final ElasticsearchOperations elasticsearchOperations;
+    private final ObjectMapper objectMapper;
+    private final SearchResultCache resultCache;
+    private final IndexGeneration indexGeneration;
+    private final long fallbackCooldownMs;
+
+    private volatile long primaryRetryAt;
+
+    public SearchService(SearchBackends searchBackends, ElasticsearchOperations elasticsearchOperations,
+            ObjectMapper objectMapper, SearchResultCache resultCache, IndexGeneration indexGeneration,
+            @Value("${search.backend.fallback-cooldown-ms:10000}") long fallbackCooldownMs) {
+        this.searchBackends = searchBackends;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.objectMapper = objectMapper;
+        this.resultCache = resultCache;
+        this.indexGeneration = indexGeneration;
+        this.fallbackCooldownMs = fallbackCooldownMs;
+    }
+
+    private static final int FACET_SIZE = 20;
+
+    // INR buckets for the price facet
+    private static final List<AggregationRange> PRICE_RANGES = List.of(
+            AggregationRange.of(r -> r.key("under-10000").to("10000")),
+            AggregationRange.of(r -> r.key("10000-25000").from("10000").to("25000")),
+            AggregationRange.of(r -> r.key("25000-50000").from("25000").to("50000")),
+            AggregationRange.of(r -> r.key("50000-100000").from("50000").to("100000")),
+            AggregationRange.of(r -> r.key("over-100000").from("100000")));
 
     public List<ProductIndex> searchProducts(String query) {
+        return resultCache.get("fuzzy|" + normalize(query), () -> searchProductsUncached(query));
+    }
+
+    /**
+     * Served by the primary backend. If it fails and a fallback is configured, the fallback
+     * serves instead and keeps serving for a cooldown, so an outage costs one failed call per
+     * cooldown rather than one per request.
+     */
+    private List<ProductIndex> searchProductsUncached(String query) {
         log.info("Searching for: {} (fuzzy)", query);
-        
-        NativeQuery nativeQuery = NativeQuery.builder()
-                .withQuery(q -> q
-                        .multiMatch(m -> m
+
+        Optional<SearchBackend> fallback = searchBackends.fallback();
+        if (fallback.isPresent() && System.currentTimeMillis() < primaryRetryAt) {
+            return fallback.get().search(query, FUZZY_RESULT_SIZE);
+        }
+        try {
+            return searchBackends.primary().search(query, FUZZY_RESULT_SIZE);
+        } catch (Exception e) {
+            if (fallback.isEmpty()) {
+                throw e;
+            }
+            primaryRetryAt = System.currentTimeMillis() + fallbackCooldownMs;
+            log.warn("{} search failed, serving from {} for {} ms: {}", searchBackends.primary().name(),
+                    fallback.get().name(), fallbackCooldownMs, e.getMessage());
+            return fallback.get().search(query, FUZZY_RESULT_SIZE);
+        }
+    }
+
+    /**
+     * Filtered, sorted, cursor-paginated search that also returns category, brand and price
+     * facet counts for the same query in one round trip.
+     */
+    public ProductSearchResult search(ProductSearchRequest request) {
+        return resultCache.get(cacheKey(request), () -> searchUncached(request));
+    }
+
+    private ProductSearchResult searchUncached(ProductSearchRequest request) {
+        List<Query> filters = new ArrayList<>();
+        if (request.getCategory() != null && !request.getCategory().isEmpty()) {
+            filters.add(termsFilter("category", request.getCategory()));
+        }
+        if (request.getBrand() != null && !request.getBrand().isEmpty()) {
+            filters.add(termsFilter("brand", request.getBrand()));
+        }
+        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+            filters.add(Query.of(q -> q.range(r -> {
+                r.field("minPrice");
+                if (request.getMinPrice() != null)
+                    r.gte(JsonData.of(request.getMinPrice()));
+                if (request.getMaxPrice() != null)
+                    r.lte(JsonData.of(request.getMaxPrice()));
+                return r;
+            })));
+        }
+
+        String text = request.getQ();
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> {
+                    if (text == null || text.isBlank()) {
+                        b.must(m -> m.matchAll(all -> all));
+                    } else {
+                        b.must(m -> m.multiMatch(mm -> mm
                                 .fields("name", "description")
-                                .query(query)
-                                .fuzziness("AUTO")
-                        )
-                )
-                .build();
+                                .query(text)
+                                .fuzziness("AUTO")));
+                    }
+                    return b.filter(filters);
+                }))
+                .withSort(sortOptions(request.getSort()))
+                .withPageable(PageRequest.of(0, request.getSize()))
+                .withAggregation("category", Aggregation.of(a -> a.terms(t -> t.field("category").size(FACET_SIZE))))
+                .withAggregation("brand", Aggregation.of(a -> a.terms(t -> t.field("brand").size(FACET_SIZE))))
+                .withAggregation("price", Aggregation.of(a -> a.range(r -> r.field("minPrice").ranges(PRICE_RANGES))));
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            builder.withSearchAfter(decodeCursor(request.getCursor()));
+        }
+
+        SearchHits<ProductIndex> searchHits = elasticsearchOperations.search(builder.build(), ProductIndex.class);
+
+        List<SearchHit<ProductIndex>> hits = searchHits.getSearchHits();
+        String nextCursor = hits.size() < request.getSize()
+                ? null
+                : encodeCursor(hits.get(hits.size() - 1).getSortValues());
 
-        SearchHits<ProductIndex> searchHits = elasticsearchOperations.search(nativeQuery, ProductIndex.class);
-        
-        return searchHits.getSearchHits().stream()
-                .map(SearchHit::getContent)
-                .collect(Collectors.toList());
+        return ProductSearchResult.builder()
+                .items(hits.stream().map(SearchHit::getContent).toList())
+                .total(searchHits.getTotalHits())
+                .nextCursor(nextCursor)
+                .facets(facets((ElasticsearchAggregations) searchHits.getAggregations()))
+                .build();
     }
 
     public void indexProduct(ProductIndex product) {
         log.info("Indexing product: {}", product.getName());
-        productSearchRepository.save(product);
+        searchBackends.enabled().forEach(backend -> backend.index(List.of(product)));
+        indexGeneration.bump();
+    }
+
+    /**
+     * Canonical form of a request, so equivalent requests (case, spacing, filter order) share
+     * a cache entry. Keyword filters stay case-sensitive as they are in the index.
+     */
+    private static String cacheKey(ProductSearchRequest request) {
+        return "q=" + normalize(request.getQ())
+                + "|category=" + sortedValues(request.getCategory())
+                + "|brand=" + sortedValues(request.getBrand())
+                + "|min=" + request.getMinPrice()
+                + "|max=" + request.getMaxPrice()
+                + "|sort=" + request.getSort()
+                + "|size=" + request.getSize()
+                + "|cursor=" + request.getCursor();
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> sortedValues(List<String> values) {
+        return values == null ? List.of() : values.stream().distinct().sorted().toList();
+    }
+
+    private static Query termsFilter(String field, List<String> values) {
+        List<FieldValue> terms = values.stream().map(FieldValue::of).toList();
+        return Query.of(q -> q.terms(t -> t.field(field).terms(v -> v.value(terms))));
+    }
+
+    /**
+     * Every sort ends on id so search_after has a unique tiebreaker.
+     */
+    private static List<SortOptions> sortOptions(ProductSearchRequest.Sort sort) {
+        // An explicit "sort": null in the request body replaces the field default
+        if (sort == null) {
+            sort = ProductSearchRequest.Sort.RELEVANCE;
+        }
+        if (sort == ProductSearchRequest.Sort.BEST_DEAL) {
+            // Biggest saving first; among equal deals the cheaper product wins
+            return List.of(
+                    SortOptions.of(o -> o.field(f -> f.field("dealPercent").order(SortOrder.Desc))),
+                    SortOptions.of(o -> o.field(f -> f.field("minPrice").order(SortOrder.Asc))),
+                    SortOptions.of(o -> o.field(f -> f.field("id").order(SortOrder.Asc))));
+        }
+        SortOptions primary = switch (sort) {
+            case PRICE_ASC -> SortOptions.of(o -> o.field(f -> f.field("minPrice").order(SortOrder.Asc)));
+            case PRICE_DESC -> SortOptions.of(o -> o.field(f -> f.field("minPrice").order(SortOrder.Desc)));
+            case RELEVANCE, BEST_DEAL -> SortOptions.of(o -> o.score(sc -> sc.order(SortOrder.Desc)));
+        };
+        return List.of(primary, SortOptions.of(o -> o.field(f -> f.field("id").order(SortOrder.Asc))));
+    }
+
+    private Map<String, List<ProductSearchResult.FacetBucket>> facets(ElasticsearchAggregations aggregations) {
+        Map<String, List<ProductSearchResult.FacetBucket>> facets = new LinkedHashMap<>();
+        if (aggregations == null) {
+            return facets;
+        }
+        for (String name : List.of("category", "brand")) {
+            Aggregate aggregate = aggregations.get(name).aggregation().getAggregate();
+            facets.put(name, aggregate.sterms().buckets().array().stream()
+                    .map(b -> new ProductSearchResult.FacetBucket(b.key().stringValue(), b.docCount()))
+                    .toList());
+        }
+        Aggregate price = aggregations.get("price").aggregation().getAggregate();
+        facets.put("price", price.range().buckets().array().stream()
+                .map(b -> new ProductSearchResult.FacetBucket(b.key(), b.docCount()))
+                .toList());
+        return facets;
+    }
+
+    private String encodeCursor(List<Object> sortValues) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(sortValues));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode search cursor", e);
+        }
+    }
+
+    private List<Object> decodeCursor(String cursor) {
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), new TypeReference<List<Object>>() {
+            });
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
     }
 }
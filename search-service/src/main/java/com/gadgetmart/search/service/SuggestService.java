@@ -0,0 +1,76 @@
+package com.gadgetmart.search.service;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import com.gadgetmart.search.indexing.IndexGeneration;
+import com.gadgetmart.search.model.ProductIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Typeahead over the name.suggest search_as_you_type subfield. A bool_prefix match on the
+ * shingle subfields is a cheap term lookup, unlike the fuzzy multi_match used for full search,
+ * and the prefix cache absorbs the repeated prefixes a typing burst produces.
+ */
+@Service
+public class SuggestService {
+
+    private static final int MAX_SUGGESTIONS = 10;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final IndexGeneration indexGeneration;
+    private final Cache<String, List<String>> prefixCache;
+
+    public SuggestService(ElasticsearchOperations elasticsearchOperations, IndexGeneration indexGeneration,
+            @Value("${search.suggest.cache-size:10000}") long cacheSize,
+            @Value("${search.suggest.cache-ttl-seconds:60}") long cacheTtlSeconds) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.indexGeneration = indexGeneration;
+        this.prefixCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        String normalized = prefix.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        int limit = Math.min(Math.max(1, size), MAX_SUGGESTIONS);
+
+        // Always cache the maximum so requests with different sizes share one entry; keying on
+        // the index generation drops every cached prefix as soon as the index changes
+        List<String> suggestions = prefixCache.get(indexGeneration.current() + "|" + normalized,
+                key -> querySuggestions(normalized));
+        return suggestions.size() <= limit ? suggestions : suggestions.subList(0, limit);
+    }
+
+    private List<String> querySuggestions(String prefix) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.multiMatch(m -> m
+                        .query(prefix)
+                        .type(TextQueryType.BoolPrefix)
+                        .fields("name.suggest", "name.suggest._2gram", "name.suggest._3gram")))
+                .withSourceFilter(new FetchSourceFilter(new String[] { "name" }, null))
+                .withPageable(PageRequest.of(0, MAX_SUGGESTIONS))
+                .build();
+
+        // A failed query throws out of the cache loader, so errors are never cached
+        return elasticsearchOperations.search(query, ProductIndex.class).getSearchHits().stream()
+                .map(SearchHit::getContent)
+                .map(ProductIndex::getName)
+                .distinct()
+                .toList();
+    }
+}
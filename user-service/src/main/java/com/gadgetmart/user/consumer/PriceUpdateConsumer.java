@@ -0,0 +1,29 @@
+package com.gadgetmart.user.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gadgetmart.user.service.PriceAlertService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceUpdateConsumer {
+
+    private final PriceAlertService priceAlertService;
+    private final ObjectMapper objectMapper;
+
+    // ─────────────────────────────────────────────────────────────────
+    // LISTEN: price.updated → Alert users watching that product
+    // ─────────────────────────────────────────────────────────────────
+    @KafkaListener(topics = "price.updated", groupId = "user-service-price-alerts")
+    public void handlePriceUpdated(String message) {
+        try {
+            priceAlertService.onPriceUpdated(objectMapper.readTree(message));
+        } catch (Exception e) {
+            log.error("Error processing price.updated event: {}", e.getMessage());
+        }
+    }
+}
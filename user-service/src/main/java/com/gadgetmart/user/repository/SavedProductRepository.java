@@ -1,6 +1,7 @@
 package com.gadgetmart.user.repository;
 
 import com.gadgetmart.user.model.SavedProduct;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +12,7 @@ public interface SavedProductRepository extends JpaRepository<SavedProduct, Long
     Optional<SavedProduct> findByUserEmailAndProductName(String userEmail, String productName);
 
     void deleteByUserEmailAndProductName(String userEmail, String productName);
+
+    // Keyset paging for full scans (index rebuilds), so late pages cost the same as early ones
+    List<SavedProduct> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
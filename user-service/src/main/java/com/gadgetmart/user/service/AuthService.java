@@ -31,6 +31,7 @@ public class AuthService {
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
     private final JwtUtil jwtUtil;
+    private final PriceWatchIndex priceWatchIndex;
 
     private static final String OTP_PREFIX = "otp:";
     private static final String OTP_TOPIC = "otp.requested";
@@ -132,7 +133,7 @@ public class AuthService {
             return Map.of("status", "SUCCESS", "message", "Product already saved");
         }
 
-        savedProductRepository.save(SavedProduct.builder()
+        SavedProduct saved = savedProductRepository.save(SavedProduct.builder()
                 .userEmail(email)
                 .productName((String) productData.get("name"))
                 .brand((String) productData.get("brand"))
@@ -141,6 +142,7 @@ public class AuthService {
                 .price(Double.valueOf(String.valueOf(productData.get("price"))))
                 .savedAt(LocalDateTime.now())
                 .build());
+        priceWatchIndex.watch(email, saved.getProductName(), saved.getPrice());
         return Map.of("status", "SUCCESS", "message", "Product saved successfully");
     }
 
@@ -151,6 +153,7 @@ public class AuthService {
     @org.springframework.transaction.annotation.Transactional
     public void removeSavedProduct(String email, String productName) {
         savedProductRepository.deleteByUserEmailAndProductName(email, productName);
+        priceWatchIndex.unwatch(email, productName);
     }
 
     private String generateOtp() {
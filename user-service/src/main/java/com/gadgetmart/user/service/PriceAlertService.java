@@ -0,0 +1,84 @@
+package com.gadgetmart.user.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gadgetmart.user.service.PriceWatchIndex.Watcher;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches a price update against the watchers of that one product and publishes a price.drop
+ * event for each user whose saved price the new best price undercuts by the configured margin.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceAlertService {
+
+    private static final String PRICE_DROP_TOPIC = "price.drop";
+
+    private final PriceWatchIndex priceWatchIndex;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+
+    // A drop smaller than this (percent of the price the user last saw) does not alert
+    @Value("${app.price-alerts.min-drop-percent:1}")
+    private double minDropPercent;
+
+    @Value("${app.price-alerts.match-page-size:500}")
+    private int matchPageSize;
+
+    @PostConstruct
+    void validate() {
+        // A negative margin would put newPrice above the match bound, so claimed watchers would match again forever
+        if (minDropPercent < 0 || minDropPercent >= 100) {
+            throw new IllegalStateException("app.price-alerts.min-drop-percent must be in [0, 100): " + minDropPercent);
+        }
+    }
+
+    public void onPriceUpdated(JsonNode event) {
+        String productKey = event.path("productKey").asText(null);
+        double newPrice = event.path("bestPrice").asDouble(0);
+        if (productKey == null || newPrice <= 0) {
+            return;
+        }
+
+        // newPrice < seen * (1 - margin)  <=>  seen > newPrice / (1 - margin); with a 0 margin any drop
+        // alerts and an unchanged price does not
+        double minSeenPrice = newPrice / (1 - minDropPercent / 100.0);
+        int matched = 0;
+        List<Watcher> page;
+        do {
+            page = priceWatchIndex.claimDrops(productKey, minSeenPrice, newPrice, matchPageSize);
+            page.forEach(watcher -> publishDrop(watcher, event, newPrice));
+            matched += page.size();
+        } while (page.size() == matchPageSize);
+
+        if (matched > 0) {
+            log.info("📉 {} price drop alerts for {} at {}", matched, productKey, newPrice);
+        }
+    }
+
+    private void publishDrop(Watcher watcher, JsonNode event, double newPrice) {
+        try {
+            Map<String, Object> drop = new LinkedHashMap<>();
+            drop.put("userEmail", watcher.userEmail());
+            drop.put("productName", event.path("productName").asText());
+            drop.put("previousPrice", watcher.lastSeenPrice());
+            drop.put("newPrice", newPrice);
+            drop.put("platformName", event.path("platformName").asText(null));
+            drop.put("productUrl", event.path("platformProductUrl").asText(null));
+            kafkaTemplate.send(PRICE_DROP_TOPIC, watcher.userEmail(), objectMapper.writeValueAsString(drop));
+        } catch (Exception e) {
+            log.error("Failed to publish price drop for {}: {}", watcher.userEmail(), e.getMessage());
+        }
+    }
+}
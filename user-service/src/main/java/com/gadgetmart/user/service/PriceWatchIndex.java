@@ -0,0 +1,151 @@
+package com.gadgetmart.user.service;
+
+import com.gadgetmart.user.model.SavedProduct;
+import com.gadgetmart.user.repository.SavedProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.RedisZSetCommands.ZAddArgs;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Who watches which product, kept in Redis as one sorted set per product: member = user email,
+ * score = the price the user last saw. A price update only reads the set of its own product, and
+ * only the members scored above the new price, so the cost of a match does not grow with the
+ * total number of saved products.
+ * <p>
+ * The sets are written through on save/remove and rebuilt from saved_products once, when they
+ * are missing (first deploy or a Redis flush).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceWatchIndex {
+
+    private static final String WATCH_PREFIX = "price-watch:";
+    private static final String INDEXED_MARKER = "price-watch-index:built";
+    private static final String REBUILD_LOCK = "price-watch-index:rebuilding";
+
+    /**
+     * Takes up to ARGV[2] watchers scored strictly above ARGV[1] and lowers their score to ARGV[3],
+     * so the same drop never matches a watcher twice and the next call returns the next page.
+     * The bound is exclusive so that a claimed watcher (now at ARGV[3] <= ARGV[1]) never matches again.
+     * Returns a flat [email, previousScore, ...] list.
+     */
+    private static final RedisScript<List> CLAIM_DROPS = new DefaultRedisScript<>("""
+            local hits = redis.call('ZRANGEBYSCORE', KEYS[1], '(' .. ARGV[1], '+inf', 'WITHSCORES', 'LIMIT', 0, tonumber(ARGV[2]))
+            for i = 1, #hits, 2 do
+              redis.call('ZADD', KEYS[1], 'XX', ARGV[3], hits[i])
+            end
+            return hits
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SavedProductRepository savedProductRepository;
+
+    @Value("${app.price-alerts.rebuild-page-size:1000}")
+    private int rebuildPageSize;
+
+    public static String keyOf(String productName) {
+        return productName.toLowerCase();
+    }
+
+    public void watch(String userEmail, String productName, Double price) {
+        if (price == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForZSet().add(WATCH_PREFIX + keyOf(productName), userEmail, price);
+        } catch (DataAccessException e) {
+            log.warn("Failed to index watch on {} for {}: {}", productName, userEmail, e.getMessage());
+        }
+    }
+
+    public void unwatch(String userEmail, String productName) {
+        try {
+            redisTemplate.opsForZSet().remove(WATCH_PREFIX + keyOf(productName), userEmail);
+        } catch (DataAccessException e) {
+            log.warn("Failed to drop watch on {} for {}: {}", productName, userEmail, e.getMessage());
+        }
+    }
+
+    /**
+     * Claims the next page of watchers whose last seen price is above {@code minScore} and
+     * resets them to {@code newPrice}, which must not exceed {@code minScore}. An empty result means there are no more matches.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Watcher> claimDrops(String productKey, double minScore, double newPrice, int limit) {
+        List<Object> hits = redisTemplate.execute(CLAIM_DROPS, List.of(WATCH_PREFIX + productKey),
+                String.valueOf(minScore), String.valueOf(limit), String.valueOf(newPrice));
+        List<Watcher> watchers = new ArrayList<>();
+        if (hits == null) {
+            return watchers;
+        }
+        for (int i = 0; i + 1 < hits.size(); i += 2) {
+            watchers.add(new Watcher(String.valueOf(hits.get(i)), Double.parseDouble(String.valueOf(hits.get(i + 1)))));
+        }
+        return watchers;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(INDEXED_MARKER))) {
+                return;
+            }
+            // One instance rebuilds; the others keep writing through and find the marker next start
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(REBUILD_LOCK, "1", Duration.ofMinutes(30)))) {
+                return;
+            }
+            try {
+                long indexed = rebuild();
+                redisTemplate.opsForValue().set(INDEXED_MARKER, String.valueOf(indexed));
+                log.info("✅ Price watch index rebuilt from {} saved products", indexed);
+            } finally {
+                redisTemplate.delete(REBUILD_LOCK);
+            }
+        } catch (Exception e) {
+            log.warn("Price watch index rebuild skipped: {}", e.getMessage());
+        }
+    }
+
+    private long rebuild() {
+        long indexed = 0;
+        long lastId = 0;
+        PageRequest page = PageRequest.of(0, rebuildPageSize);
+        List<SavedProduct> batch;
+        while (!(batch = savedProductRepository.findByIdGreaterThanOrderByIdAsc(lastId, page)).isEmpty()) {
+            List<SavedProduct> rows = batch;
+            // ZADD NX: a write-through or an alert that already landed is newer than the table row
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (SavedProduct row : rows) {
+                    if (row.getPrice() != null) {
+                        redis.zAdd(WATCH_PREFIX + keyOf(row.getProductName()), row.getPrice(), row.getUserEmail(),
+                                ZAddArgs.ifNotExists());
+                    }
+                }
+                return null;
+            });
+            indexed += rows.size();
+            lastId = rows.get(rows.size() - 1).getId();
+        }
+        return indexed;
+    }
+
+    public record Watcher(String userEmail, double lastSeenPrice) {
+    }
+}